@@ -0,0 +1,129 @@
+package tn.esprit.devops_project.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.esprit.devops_project.DevOps_ProjectSpringBootApplication;
+import tn.esprit.devops_project.services.InvoiceRollupService;
+import tn.esprit.devops_project.services.ProductSearchIndex;
+import tn.esprit.devops_project.services.SupplierCodeIndex;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Starts the application, without its web server unless asked, on an in-memory H2 database and seeds it
+ * with plain JDBC batches. Ids are identity columns starting at 1 on the fresh database,
+ * so every table is seeded in id order and rows reference each other by position.
+ */
+final class BenchmarkDatabase {
+
+    static final int SUPPLIERS = 200;
+    static final int STOCKS = 20;
+    static final int PRODUCTS = 10_000;
+    static final int OPERATORS = 50;
+    static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    static final int DAYS = 730;
+
+    private static final int BATCH = 5_000;
+    private static final String INSERT_INVOICE = "insert into invoice (amount_discount, amount_invoice, date_creation_invoice,"
+            + " date_last_modification_invoice, archived, supplier_id_supplier) values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DETAIL = "insert into invoice_detail (quantity, price, product_id_product,"
+            + " invoice_id_invoice) values (?, ?, ?, ?)";
+    private static final String INSERT_ASSIGNMENT = "insert into operator_invoices (operator_id_operateur,"
+            + " invoices_id_invoice) values (?, ?)";
+    private static final String[] WORDS = {"paper", "pen", "ink", "phone", "cable", "shirt", "lamp", "desk", "chair",
+            "book", "novel", "charger", "screen", "mouse", "keyboard", "jacket", "notebook", "stapler", "battery", "printer"};
+    private static final String[] CATEGORIES = {"ELECTRONICS", "CLOTHING", "BOOKS"};
+
+    private BenchmarkDatabase() {
+    }
+
+    static ConfigurableApplicationContext start(int invoices, int detailsPerInvoice) {
+        return start(invoices, detailsPerInvoice, WebApplicationType.NONE, context -> { });
+    }
+
+    static ConfigurableApplicationContext start(int invoices, int detailsPerInvoice, WebApplicationType webApplicationType,
+                                                ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DevOps_ProjectSpringBootApplication.class)
+                .web(webApplicationType)
+                .initializers(initializer)
+                // passed as arguments to take precedence over application.properties
+                .run(args.toArray(new String[0]));
+        seed(context.getBean(JdbcTemplate.class), invoices, detailsPerInvoice);
+        // the startup listeners ran on the empty database
+        context.getBean(InvoiceRollupService.class).reconcile();
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(SupplierCodeIndex.class).rebuild();
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbc, int invoices, int detailsPerInvoice) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= SUPPLIERS; i++) {
+            rows.add(new Object[]{"SUP-" + i, "Supplier " + i, i % 2 == 0 ? "ORDINAIRE" : "CONVENTIONNE"});
+        }
+        insert(jdbc, "insert into supplier (code, label, supplier_category) values (?, ?, ?)", rows);
+        for (int i = 1; i <= STOCKS; i++) {
+            rows.add(new Object[]{"Stock " + i});
+        }
+        insert(jdbc, "insert into stock (title) values (?)", rows);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            rows.add(new Object[]{title, 1 + random.nextInt(500), random.nextInt(200),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], 1 + random.nextInt(STOCKS)});
+        }
+        insert(jdbc, "insert into product (title, price, quantity, category, stock_id_stock) values (?, ?, ?, ?, ?)", rows);
+        for (int i = 1; i <= OPERATORS; i++) {
+            rows.add(new Object[]{"Operator", String.valueOf(i), "secret"});
+        }
+        insert(jdbc, "insert into operator (fname, lname, password) values (?, ?, ?)", rows);
+
+        for (int i = 1; i <= invoices; i++) {
+            Date day = Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS)));
+            rows.add(new Object[]{random.nextInt(50), 10 + random.nextInt(5000), day, day,
+                    random.nextInt(10) == 0, 1 + random.nextInt(SUPPLIERS)});
+            if (rows.size() == BATCH) {
+                insert(jdbc, INSERT_INVOICE, rows);
+            }
+        }
+        insert(jdbc, INSERT_INVOICE, rows);
+        for (int i = 1; i <= invoices; i++) {
+            for (int j = 0; j < detailsPerInvoice; j++) {
+                rows.add(new Object[]{1 + random.nextInt(10), 1 + random.nextInt(500), 1 + random.nextInt(PRODUCTS), i});
+            }
+            if (rows.size() >= BATCH) {
+                insert(jdbc, INSERT_DETAIL, rows);
+            }
+        }
+        insert(jdbc, INSERT_DETAIL, rows);
+        for (int i = 1; i <= invoices; i += 3) {
+            rows.add(new Object[]{1 + (i % OPERATORS), i});
+            if (rows.size() == BATCH) {
+                insert(jdbc, INSERT_ASSIGNMENT, rows);
+            }
+        }
+        insert(jdbc, INSERT_ASSIGNMENT, rows);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package tn.esprit.devops_project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the platform-thread Tomcat pool against virtual threads while the database is slow.
+ * Every statement is delayed by {@code queryLatencyMillis}; one operation is a burst of {@code concurrency}
+ * simultaneous requests, half of them running a query and half served from the second-level cache, and its result
+ * counts the rejected ones. The {@code virtual} mode needs the benchmark to run on Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RequestExecutionBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"200", "1000"})
+    int concurrency;
+
+    @Param("20")
+    int queryLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(10_000, 1, WebApplicationType.SERVLET,
+                applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new SlowStatements(queryLatencyMillis)),
+                "--server.port=0",
+                "--execution.virtual-threads.enabled=" + "virtual".equals(threads));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientExecutor = Executors.newFixedThreadPool(8);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        requests = new HttpRequest[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            String path = i % 2 == 0
+                    ? "/stock/" + (1 + i % BenchmarkDatabase.STOCKS) + "/valuation"
+                    : "/supplier/code/SUP-" + (1 + i % BenchmarkDatabase.SUPPLIERS);
+            requests[i] = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(60)).build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests.length];
+        int[] rejected = new int[1];
+        for (int i = 0; i < requests.length; i++) {
+            responses[i] = client.sendAsync(requests[i], HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() >= 500) {
+                            synchronized (rejected) {
+                                rejected[0]++;
+                            }
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return rejected[0];
+    }
+
+    /**
+     * Delays every statement prepared on the application's datasource, as a loaded MySQL would.
+     */
+    static class SlowStatements implements BeanPostProcessor {
+        final long latencyMillis;
+
+        SlowStatements(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || !"dataSource".equals(beanName)) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                            (proxy, method, args) -> {
+                                if (method.getName().startsWith("prepare")) {
+                                    Thread.sleep(latencyMillis);
+                                }
+                                try {
+                                    return method.invoke(connection, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getTargetException();
+                                }
+                            });
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tn.esprit.devops_project.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tn.esprit.devops_project.dto.InvoiceExportRow;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding of 100k-row responses as JSON, Smile or CBOR, optionally gzipped like
+ * {@code server.compression} does. The payload sizes are printed once per trial, since JMH only
+ * reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    @Param("100000")
+    int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<InvoiceExportRow> invoiceRows;
+    private byte[] encodedProducts;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = "smile".equals(format) ? new SmileFactory() : "cbor".equals(format) ? new CBORFactory() : null;
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = factory == null ? builder.build() : builder.factory(factory).build();
+        products = new ArrayList<>(rows);
+        invoiceRows = new ArrayList<>(rows);
+        Date now = new Date();
+        for (long i = 1; i <= rows; i++) {
+            products.add(new Product(i, "product " + i, i % 500, (int) (i % 200), ProductCategory.values()[(int) (i % 3)], null));
+            invoiceRows.add(new InvoiceExportRow(i, now, now, 10f * (i % 1000), i % 50, i % 10 == 0, 1 + i % 200));
+        }
+        encodedProducts = encode(products);
+        System.out.printf("%n%s/%s payload: products %d bytes, invoice rows %d bytes%n",
+                format, compression, encodedProducts.length, encode(invoiceRows).length);
+    }
+
+    @Benchmark
+    public byte[] encodeProducts() throws IOException {
+        return encode(products);
+    }
+
+    @Benchmark
+    public byte[] encodeInvoiceRows() throws IOException {
+        return encode(invoiceRows);
+    }
+
+    @Benchmark
+    public List<Product> decodeProducts() throws IOException {
+        try (InputStream input = decompress(new ByteArrayInputStream(encodedProducts))) {
+            return objectMapper.readValue(input, new TypeReference<List<Product>>() { });
+        }
+    }
+
+    private byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream output = "gzip".equals(compression) ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            objectMapper.writeValue(output, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private InputStream decompress(InputStream input) throws IOException {
+        return "gzip".equals(compression) ? new GZIPInputStream(input, 8192) : input;
+    }
+}
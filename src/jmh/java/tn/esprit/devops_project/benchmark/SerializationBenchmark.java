@@ -0,0 +1,96 @@
+package tn.esprit.devops_project.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDetail;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Stock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entity graphs the controllers return, with the object mapper
+ * configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param("100")
+    int invoices;
+
+    @Param("10")
+    int detailsPerInvoice;
+
+    @Param("1000")
+    int productsPerStock;
+
+    private ObjectMapper objectMapper;
+    private List<Invoice> invoicePage;
+    private Stock stock;
+    private List<Product> products;
+    private byte[] invoicePageJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = new ArrayList<>();
+        for (long i = 1; i <= productsPerStock; i++) {
+            products.add(new Product(i, "product " + i, i % 500, (int) (i % 200), ProductCategory.values()[(int) (i % 3)], null));
+        }
+        stock = new Stock(1L, "main", new HashSet<>(products));
+        invoicePage = new ArrayList<>();
+        for (long i = 1; i <= invoices; i++) {
+            Set<InvoiceDetail> details = new HashSet<>();
+            for (int j = 0; j < detailsPerInvoice; j++) {
+                details.add(new InvoiceDetail(i * detailsPerInvoice + j, 1 + j, 10f, products.get(j % products.size()), null));
+            }
+            invoicePage.add(new Invoice(i, 5f, 100f * i, new Date(), new Date(), false, details, null));
+        }
+        invoicePageJson = objectMapper.writeValueAsBytes(invoicePage);
+    }
+
+    @Benchmark
+    public byte[] serializeInvoicePage() throws IOException {
+        return objectMapper.writeValueAsBytes(invoicePage);
+    }
+
+    @Benchmark
+    public List<Invoice> deserializeInvoicePage() throws IOException {
+        return objectMapper.readValue(invoicePageJson, new TypeReference<List<Invoice>>() { });
+    }
+
+    @Benchmark
+    public byte[] serializeStock() throws IOException {
+        return objectMapper.writeValueAsBytes(stock);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws IOException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
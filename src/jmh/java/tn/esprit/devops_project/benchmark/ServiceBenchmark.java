@@ -0,0 +1,130 @@
+package tn.esprit.devops_project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.devops_project.dto.InvoicePage;
+import tn.esprit.devops_project.dto.OperatorWorkload;
+import tn.esprit.devops_project.dto.StockValuation;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.services.InvoiceServiceImpl;
+import tn.esprit.devops_project.services.SupplierScorecardService;
+import tn.esprit.devops_project.services.Iservices.IInvoiceService;
+import tn.esprit.devops_project.services.Iservices.IOperatorService;
+import tn.esprit.devops_project.services.Iservices.IProductService;
+import tn.esprit.devops_project.services.Iservices.IStockService;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the services against a seeded embedded database.
+ * Volumes can be changed with {@code -Djmh.args="-p invoices=10000 -p detailsPerInvoice=3"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceBenchmark {
+
+    @Param("100000")
+    int invoices;
+
+    @Param("10")
+    int detailsPerInvoice;
+
+    private ConfigurableApplicationContext context;
+    private IInvoiceService invoiceService;
+    private IProductService productService;
+    private IStockService stockService;
+    private IOperatorService operatorService;
+    private SupplierScorecardService supplierScorecardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(invoices, detailsPerInvoice);
+        invoiceService = context.getBean(IInvoiceService.class);
+        productService = context.getBean(IProductService.class);
+        stockService = context.getBean(IStockService.class);
+        operatorService = context.getBean(IOperatorService.class);
+        supplierScorecardService = context.getBean(SupplierScorecardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Invoice retrieveInvoice() {
+        return invoiceService.retrieveInvoice(1L + ThreadLocalRandom.current().nextInt(invoices));
+    }
+
+    @Benchmark
+    public InvoicePage retrieveInvoicesPage() {
+        long afterId = ThreadLocalRandom.current().nextInt(invoices);
+        return invoiceService.retrieveInvoicesPage(InvoiceServiceImpl.encodeCursor(afterId), 100);
+    }
+
+    @Benchmark
+    public Page<Invoice> supplierInvoicesPage() {
+        return invoiceService.getInvoicesBySupplier(randomSupplier(), false, null, null, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public SupplierInvoiceSummary supplierInvoiceSummary() {
+        return invoiceService.getSupplierInvoiceSummary(randomSupplier(), false, null, null);
+    }
+
+    @Benchmark
+    public BigDecimal totalAmountOverAYear() {
+        return invoiceService.getTotalAmountInvoiceBetweenDates(Date.valueOf(BenchmarkDatabase.FIRST_DAY),
+                Date.valueOf(BenchmarkDatabase.FIRST_DAY.plusYears(1)));
+    }
+
+    @Benchmark
+    public List<StockValuation> stockValuations() {
+        return stockService.retrieveStockValuations();
+    }
+
+    @Benchmark
+    public List<Product> productSearch() {
+        return productService.searchProducts("pen", null, null, null, 100f, 20);
+    }
+
+    @Benchmark
+    public List<OperatorWorkload> operatorWorkloads() {
+        return operatorService.retrieveWorkloads();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SupplierScorecardSnapshot supplierScorecards() {
+        return supplierScorecardService.refresh();
+    }
+
+    private static long randomSupplier() {
+        return 1L + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.SUPPLIERS);
+    }
+}
@@ -0,0 +1,81 @@
+package tn.esprit.devops_project.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one scenario. Latencies are kept raw, a run of a few minutes at a few
+ * hundred requests per second fits easily in memory and gives exact percentiles.
+ */
+class EndpointStats {
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private int dropped;
+    private final Map<String, Integer> outcomes = new TreeMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long latencyNanos, String outcome, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        outcomes.merge(outcome, 1, Integer::sum);
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized void drop() {
+        dropped++;
+    }
+
+    synchronized Map<String, Object> report(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(percentile(sorted, 0.50)));
+        latency.put("p95", millis(percentile(sorted, 0.95)));
+        latency.put("p99", millis(percentile(sorted, 0.99)));
+        latency.put("max", millis(count == 0 ? 0 : sorted[count - 1]));
+        latency.put("mean", millis(count == 0 ? 0 : (long) Arrays.stream(sorted).average().orElse(0)));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", name);
+        report.put("requests", count);
+        report.put("throughput", round(count / seconds));
+        report.put("errors", errors);
+        report.put("errorRate", count == 0 ? 0 : round((double) errors / count));
+        report.put("dropped", dropped);
+        report.put("latencyMs", latency);
+        report.put("outcomes", new TreeMap<>(outcomes));
+        return report;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    // nearest-rank percentile
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
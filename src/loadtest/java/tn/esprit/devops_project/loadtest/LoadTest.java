@@ -0,0 +1,161 @@
+package tn.esprit.devops_project.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import tn.esprit.devops_project.DevOps_ProjectSpringBootApplication;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a weighted mix of the REST endpoints at a fixed request rate and writes throughput, latency
+ * percentiles and error rates per endpoint to a JSON report.
+ *
+ * <p>Without {@code --target} the application is started in this JVM on a random port with an in-memory
+ * H2 database. Run it through the {@code loadtest} profile:
+ * <pre>
+ * mvn -P loadtest -DskipTests verify -Dloadtest.args="--rps=300 --duration=PT2M"
+ * </pre>
+ * Options, all {@code --name=value}: {@code rps} (200), {@code duration} (PT60S), {@code warmup} (PT15S),
+ * {@code mix} (name=weight,... see {@link TrafficMix#DEFAULT_WEIGHTS}), {@code target}, {@code max-in-flight} (512),
+ * {@code timeout} (PT10S), {@code products} (2000), {@code invoices} (5000), {@code report}
+ * (target/loadtest-report.json).
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Map<String, String> options = parse(arguments);
+        double rps = Double.parseDouble(options.getOrDefault("rps", "200"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+        Duration timeout = Duration.parse(options.getOrDefault("timeout", "PT10S"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "512"));
+        File report = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            context = startEmbedded();
+            target = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(timeout)
+                    .build();
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            SeedData seed = new SeedData(client, mapper, target);
+            seed.seed(Integer.parseInt(options.getOrDefault("stocks", "10")),
+                    Integer.parseInt(options.getOrDefault("suppliers", "50")),
+                    Integer.parseInt(options.getOrDefault("operators", "20")),
+                    Integer.parseInt(options.getOrDefault("products", "2000")),
+                    Integer.parseInt(options.getOrDefault("invoices", "5000")),
+                    Integer.parseInt(options.getOrDefault("details", "3")));
+            System.out.println("Seeded " + target + " with " + seed.describe());
+
+            TrafficMix mix = new TrafficMix(target, seed, TrafficMix.parseWeights(options.get("mix")), timeout);
+            OpenLoopRunner runner = new OpenLoopRunner(client, mix, maxInFlight);
+            if (!warmup.isZero()) {
+                System.out.println("Warming up for " + warmup);
+                runner.run(rps, warmup);
+            }
+            System.out.println("Running " + rps + " req/s for " + duration);
+            long start = System.nanoTime();
+            Map<String, EndpointStats> stats = runner.run(rps, duration);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> result = summarize(target, rps, duration, seconds, mix, stats);
+            File directory = report.getAbsoluteFile().getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Cannot create " + directory);
+            }
+            mapper.writeValue(report, result);
+            print(result);
+            System.out.println("Report written to " + report.getAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return new SpringApplicationBuilder(DevOps_ProjectSpringBootApplication.class)
+                // passed as arguments to take precedence over application.properties
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.main.banner-mode=off");
+    }
+
+    private static Map<String, Object> summarize(String target, double rps, Duration duration, double seconds,
+                                                 TrafficMix mix, Map<String, EndpointStats> stats) {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        long dropped = 0;
+        for (TrafficMix.Scenario scenario : mix.getScenarios()) {
+            Map<String, Object> endpoint = stats.get(scenario.name).report(seconds);
+            endpoint.put("weight", scenario.weight);
+            endpoints.add(endpoint);
+            requests += (Integer) endpoint.get("requests");
+            errors += (Integer) endpoint.get("errors");
+            dropped += (Integer) endpoint.get("dropped");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("target", target);
+        result.put("targetRps", rps);
+        result.put("duration", duration.toString());
+        result.put("elapsedSeconds", Math.round(seconds * 1000) / 1000.0);
+        result.put("requests", requests);
+        result.put("throughput", Math.round(requests / seconds * 1000) / 1000.0);
+        result.put("errors", errors);
+        result.put("errorRate", requests == 0 ? 0 : Math.round((double) errors / requests * 1000) / 1000.0);
+        result.put("dropped", dropped);
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> result) {
+        System.out.printf("%-18s %8s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "dropped");
+        for (Map<String, Object> endpoint : (List<Map<String, Object>>) result.get("endpoints")) {
+            Map<String, Object> latency = (Map<String, Object>) endpoint.get("latencyMs");
+            System.out.printf("%-18s %8s %9s %9s %9s %9s %9s %7s%n", endpoint.get("name"), endpoint.get("throughput"),
+                    latency.get("p50"), latency.get("p95"), latency.get("p99"), latency.get("max"),
+                    endpoint.get("errors"), endpoint.get("dropped"));
+        }
+        System.out.printf("total %s req/s, %s errors, %s dropped%n",
+                result.get("throughput"), result.get("errors"), result.get("dropped"));
+    }
+
+    private static Map<String, String> parse(String[] arguments) {
+        Map<String, String> options = new HashMap<>();
+        for (String argument : arguments) {
+            if (!argument.startsWith("--") || !argument.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + argument);
+            }
+            int equals = argument.indexOf('=');
+            options.put(argument.substring(2, equals), argument.substring(equals + 1));
+        }
+        return options;
+    }
+}
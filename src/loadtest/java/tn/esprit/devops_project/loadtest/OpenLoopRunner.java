@@ -0,0 +1,87 @@
+package tn.esprit.devops_project.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on a fixed schedule whatever the response times are (open loop), so a slow server
+ * builds up a queue instead of slowing the generator down. Latency is measured from the time a
+ * request was scheduled to go out, not from when it actually left, which keeps client-side queueing
+ * in the numbers instead of hiding it (coordinated omission).
+ * When more than {@code maxInFlight} requests are outstanding the next ones are dropped and counted.
+ */
+class OpenLoopRunner {
+
+    private final HttpClient client;
+    private final TrafficMix mix;
+    private final int maxInFlight;
+    private final Random random = new Random(7);
+
+    OpenLoopRunner(HttpClient client, TrafficMix mix, int maxInFlight) {
+        this.client = client;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Plays the mix at {@code rps} for {@code duration} and waits for the outstanding requests.
+     * Returns the statistics per scenario, in mix order.
+     */
+    Map<String, EndpointStats> run(double rps, Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        mix.getScenarios().forEach(scenario -> stats.put(scenario.name, new EndpointStats(scenario.name)));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Map<CompletableFuture<?>, Boolean> pending = new ConcurrentHashMap<>();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            TrafficMix.Scenario scenario = mix.pick(random);
+            EndpointStats endpoint = stats.get(scenario.name);
+            if (!inFlight.tryAcquire()) {
+                endpoint.drop();
+                continue;
+            }
+            HttpRequest request = scenario.request.apply(random, mix);
+            long scheduled = intended;
+            CompletableFuture<?> future = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        inFlight.release();
+                        if (failure != null) {
+                            endpoint.record(latency, rootCause(failure).getClass().getSimpleName(), true);
+                        } else {
+                            int status = response.statusCode();
+                            endpoint.record(latency, String.valueOf(status), status >= 400);
+                        }
+                    });
+            pending.put(future, Boolean.TRUE);
+            future.whenComplete((response, failure) -> pending.remove(future));
+        }
+        CompletableFuture.allOf(pending.keySet().toArray(new CompletableFuture[0]))
+                .exceptionally(failure -> null)
+                .join();
+        return stats;
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        while (failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,162 @@
+package tn.esprit.devops_project.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the target through its own API (stocks, suppliers and operators one by one, products and
+ * invoices through the bulk imports) so the same run works against the embedded application and
+ * against an already deployed one. Ids are read back from the responses rather than assumed.
+ */
+class SeedData {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    static final int DAYS = 730;
+
+    private static final String[] WORDS = {"paper", "pen", "ink", "phone", "cable", "shirt", "lamp", "desk", "chair",
+            "book", "novel", "charger", "screen", "mouse", "keyboard", "jacket", "notebook", "stapler", "battery", "printer"};
+    private static final String[] CATEGORIES = {"ELECTRONICS", "CLOTHING", "BOOKS"};
+
+    private final List<Long> stockIds = new ArrayList<>();
+    private final List<Long> supplierIds = new ArrayList<>();
+    private final List<Long> operatorIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> invoiceIds = new ArrayList<>();
+
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final String target;
+    private final Random random = new Random(42);
+
+    SeedData(HttpClient client, ObjectMapper mapper, String target) {
+        this.client = client;
+        this.mapper = mapper;
+        this.target = target;
+    }
+
+    void seed(int stocks, int suppliers, int operators, int products, int invoices, int detailsPerInvoice)
+            throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 1; i <= stocks; i++) {
+            stockIds.add(post("/stock", "{\"title\":\"Load stock " + i + "\"}").path("idStock").asLong());
+        }
+        for (int i = 1; i <= suppliers; i++) {
+            supplierIds.add(post("/supplier", "{\"code\":\"LT-" + run + "-" + i + "\",\"label\":\"Load supplier " + i
+                    + "\",\"supplierCategory\":\"" + (i % 2 == 0 ? "ORDINAIRE" : "CONVENTIONNE") + "\"}")
+                    .path("idSupplier").asLong());
+        }
+        for (int i = 1; i <= operators; i++) {
+            operatorIds.add(post("/operator", "{\"fname\":\"Load\",\"lname\":\"" + i + "\",\"password\":\"secret\"}")
+                    .path("idOperateur").asLong());
+        }
+        for (int s = 0; s < stockIds.size(); s++) {
+            StringBuilder csv = new StringBuilder("title,price,quantity,category\n");
+            for (int i = s; i < products; i += stockIds.size()) {
+                csv.append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(WORDS[random.nextInt(WORDS.length)])
+                        .append(' ').append(i).append(',').append(1 + random.nextInt(500)).append(',')
+                        .append(random.nextInt(200)).append(',').append(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                        .append('\n');
+            }
+            send("/product/" + stockIds.get(s) + "/batch", "text/csv", csv.toString());
+        }
+        for (Long stockId : stockIds) {
+            for (JsonNode product : get("/product/stock/" + stockId)) {
+                productIds.add(product.path("idProduct").asLong());
+            }
+        }
+        require(!productIds.isEmpty(), "no products were imported");
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < invoices; i++) {
+            StringBuilder details = new StringBuilder();
+            for (int j = 0; j < detailsPerInvoice; j++) {
+                details.append(j == 0 ? "" : ",").append("{\"productId\":").append(pick(productIds, random))
+                        .append(",\"quantity\":").append(1 + random.nextInt(10))
+                        .append(",\"price\":").append(1 + random.nextInt(500)).append('}');
+            }
+            ndjson.append("{\"supplierId\":").append(pick(supplierIds, random))
+                    .append(",\"amountDiscount\":").append(random.nextInt(50))
+                    .append(",\"dateCreationInvoice\":\"").append(FIRST_DAY.plusDays(random.nextInt(DAYS)))
+                    .append("\",\"details\":[").append(details).append("]}\n");
+        }
+        send("/invoice/import", "application/x-ndjson", ndjson.toString());
+        String cursor = null;
+        do {
+            JsonNode page = get("/invoice/page?size=500"
+                    + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8)));
+            page.path("invoices").forEach(invoice -> invoiceIds.add(invoice.path("idInvoice").asLong()));
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        require(!invoiceIds.isEmpty(), "no invoices were imported");
+    }
+
+    long stockId(Random random) {
+        return pick(stockIds, random);
+    }
+
+    long supplierId(Random random) {
+        return pick(supplierIds, random);
+    }
+
+    long operatorId(Random random) {
+        return pick(operatorIds, random);
+    }
+
+    long invoiceId(Random random) {
+        return pick(invoiceIds, random);
+    }
+
+    String describe() {
+        return stockIds.size() + " stocks, " + supplierIds.size() + " suppliers, " + operatorIds.size() + " operators, "
+                + productIds.size() + " products, " + invoiceIds.size() + " invoices";
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private JsonNode post(String path, String json) throws IOException, InterruptedException {
+        return send(path, "application/json", json);
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        return check(path, client.send(HttpRequest.newBuilder(URI.create(target + path))
+                .header("Accept", "application/json").GET().build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private JsonNode send(String path, String contentType, String body) throws IOException, InterruptedException {
+        return check(path, client.send(HttpRequest.newBuilder(URI.create(target + path))
+                .header("Content-Type", contentType)
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private JsonNode check(String path, HttpResponse<String> response) throws IOException {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode json = mapper.readTree(response.body());
+        if (json.path("rejected").asLong() > 0) {
+            throw new IllegalStateException("Seeding " + path + " rejected records: " + json.path("errors"));
+        }
+        return json;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("Seeding failed, " + message);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package tn.esprit.devops_project.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Weighted mix of the controller endpoints. The default weights approximate a dashboard-heavy day:
+ * mostly reads, a steady trickle of product adds, operator assignments and invoice cancels.
+ * {@code --mix=name=weight,...} replaces them; scenarios left out are not played.
+ */
+class TrafficMix {
+
+    static final Map<String, Integer> DEFAULT_WEIGHTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_WEIGHTS.put("invoice-page", 22);
+        DEFAULT_WEIGHTS.put("invoice", 10);
+        DEFAULT_WEIGHTS.put("products", 5);
+        DEFAULT_WEIGHTS.put("product-search", 15);
+        DEFAULT_WEIGHTS.put("suppliers", 10);
+        DEFAULT_WEIGHTS.put("stock-summary", 5);
+        DEFAULT_WEIGHTS.put("supplier-summary", 5);
+        DEFAULT_WEIGHTS.put("range-total", 10);
+        DEFAULT_WEIGHTS.put("add-product", 8);
+        DEFAULT_WEIGHTS.put("assign-operator", 5);
+        DEFAULT_WEIGHTS.put("cancel-invoice", 5);
+    }
+
+    // Date path variables are bound through java.util.Date(String)
+    private static final DateTimeFormatter PATH_DATE = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+    private static final String[] WORDS = {"paper", "pen", "ink", "phone", "cable", "lamp", "desk", "book", "screen", "mouse"};
+
+    private final String target;
+    private final SeedData seed;
+    private final Duration timeout;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    TrafficMix(String target, SeedData seed, Map<String, Integer> weights, Duration timeout) {
+        this.target = target;
+        this.seed = seed;
+        this.timeout = timeout;
+        Map<String, BiFunction<Random, TrafficMix, HttpRequest>> all = scenarios();
+        weights.forEach((name, weight) -> {
+            if (!all.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown scenario " + name + ", known: " + all.keySet());
+            }
+            if (weight > 0) {
+                scenarios.add(new Scenario(name, weight, all.get(name)));
+            }
+        });
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix is empty");
+        }
+        cumulativeWeights = new int[scenarios.size()];
+        int sum = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            sum += scenarios.get(i).weight;
+            cumulativeWeights[i] = sum;
+        }
+        totalWeight = sum;
+    }
+
+    static Map<String, Integer> parseWeights(String mix) {
+        if (mix == null || mix.isBlank()) {
+            return DEFAULT_WEIGHTS;
+        }
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return weights;
+    }
+
+    List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    Scenario pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static Map<String, BiFunction<Random, TrafficMix, HttpRequest>> scenarios() {
+        Map<String, BiFunction<Random, TrafficMix, HttpRequest>> all = new LinkedHashMap<>();
+        all.put("invoice-page", (random, mix) -> mix.get("/invoice/page?size=100"));
+        all.put("invoice", (random, mix) -> mix.get("/invoice/" + mix.seed.invoiceId(random)));
+        all.put("products", (random, mix) -> mix.get("/product"));
+        all.put("product-search", (random, mix) -> mix.get("/product/search?q=" + WORDS[random.nextInt(WORDS.length)]
+                + "&limit=20"));
+        all.put("suppliers", (random, mix) -> mix.get("/supplier"));
+        all.put("stock-summary", (random, mix) -> mix.get("/stock/summary"));
+        all.put("supplier-summary", (random, mix) -> mix.get("/invoice/supplier/" + mix.seed.supplierId(random) + "/summary"));
+        all.put("range-total", (random, mix) -> {
+            LocalDate start = SeedData.FIRST_DAY.plusDays(random.nextInt(SeedData.DAYS));
+            return mix.get("/invoice/price/" + pathDate(start) + "/" + pathDate(start.plusDays(30)));
+        });
+        all.put("add-product", (random, mix) -> mix.request("/product/" + mix.seed.stockId(random))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"" + WORDS[random.nextInt(WORDS.length)] + " load\","
+                        + "\"price\":" + (1 + random.nextInt(500)) + ",\"quantity\":" + random.nextInt(100)
+                        + ",\"category\":\"ELECTRONICS\"}"))
+                .build());
+        all.put("assign-operator", (random, mix) -> mix.request("/invoice/operator/" + mix.seed.operatorId(random)
+                + "/" + mix.seed.invoiceId(random)).PUT(HttpRequest.BodyPublishers.noBody()).build());
+        all.put("cancel-invoice", (random, mix) -> mix.request("/invoice/" + mix.seed.invoiceId(random))
+                .PUT(HttpRequest.BodyPublishers.noBody()).build());
+        return all;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(target + path)).timeout(timeout);
+    }
+
+    private static String pathDate(LocalDate day) {
+        return URLEncoder.encode(PATH_DATE.format(day), StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    static class Scenario {
+        final String name;
+        final int weight;
+        final BiFunction<Random, TrafficMix, HttpRequest> request;
+
+        Scenario(String name, int weight, BiFunction<Random, TrafficMix, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+}
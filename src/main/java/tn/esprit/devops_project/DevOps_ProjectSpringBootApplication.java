@@ -2,8 +2,10 @@ package tn.esprit.devops_project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DevOps_ProjectSpringBootApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,115 @@
+package tn.esprit.devops_project.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every {@code Iservices} method and every repository call.
+ * <ul>
+ *     <li>{@code service.calls} / {@code repository.calls}: timers with percentile histograms</li>
+ *     <li>{@code service.errors} / {@code repository.errors}: failed calls by exception</li>
+ *     <li>{@code service.in.flight} / {@code repository.in.flight}: calls currently running</li>
+ * </ul>
+ * Service meters are tagged with the interface and method and the HTTP endpoint that triggered them,
+ * repository meters with the repository, its entity and method.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class OperationMetricsAspect {
+
+    static final String NONE = "none";
+    private static final String BASE_PACKAGE = "tn.esprit.devops_project.";
+
+    final MeterRegistry meterRegistry;
+
+    private final Map<Tags, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Tags> repositoryTags = new ConcurrentHashMap<>();
+
+    @Around("execution(* tn.esprit.devops_project.services.Iservices.*.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("service", serviceName(joinPoint.getSignature().getDeclaringType()),
+                "method", joinPoint.getSignature().getName(), "endpoint", endpoint());
+        return record("service", tags, joinPoint);
+    }
+
+    // bean() also matches the methods Spring Data repositories inherit, such as findById
+    @Around("bean(*Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = repositoryTags.computeIfAbsent(joinPoint.getTarget().getClass(), type -> describe(joinPoint.getTarget()))
+                .and("method", joinPoint.getSignature().getName());
+        return record("repository", tags, joinPoint);
+    }
+
+    private Object record(String prefix, Tags tags, ProceedingJoinPoint joinPoint) throws Throwable {
+        AtomicInteger running = inFlight.computeIfAbsent(Tags.of(tags).and("meter", prefix),
+                key -> meterRegistry.gauge(prefix + ".in.flight", tags, new AtomicInteger()));
+        String exception = NONE;
+        long start = System.nanoTime();
+        running.incrementAndGet();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            Counter.builder(prefix + ".errors").tags(tags).tag("exception", exception)
+                    .register(meterRegistry).increment();
+            throw e;
+        } finally {
+            running.decrementAndGet();
+            Timer.builder(prefix + ".calls").tags(tags).tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String serviceName(Class<?> implementation) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(implementation)) {
+            if (type.getName().startsWith(BASE_PACKAGE + "services.Iservices.")) {
+                return type.getSimpleName();
+            }
+        }
+        return implementation.getSimpleName();
+    }
+
+    // Spring Data repositories are proxies of their interface, the JDBC ones are plain classes
+    static Tags describe(Object repository) {
+        for (Class<?> type : ClassUtils.getAllInterfaces(repository)) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith(BASE_PACKAGE)) {
+                return Tags.of("repository", type.getSimpleName(),
+                        "entity", AbstractRepositoryMetadata.getMetadata(type).getDomainType().getSimpleName());
+            }
+        }
+        String name = AopUtils.getTargetClass(repository).getSimpleName();
+        return Tags.of("repository", name, "entity", name.replace("ImportRepository", "").replace("Repository", ""));
+    }
+
+    static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NONE : ((ServletRequestAttributes) attributes).getRequest().getMethod() + " " + pattern;
+    }
+}
@@ -0,0 +1,93 @@
+package tn.esprit.devops_project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with a primary and its read replicas when {@code read-replica.enabled=true}.
+ * Every pool is a Hikari pool tuned by {@code spring.datasource.hikari.*} and reported under its own pool name.
+ * Transactions marked {@code readOnly} (the {@code Iservices} read methods, and the Spring Data finders
+ * called outside a service transaction) read from a replica, so they may lag behind the primary.
+ * Open-in-view is turned off by {@link ReadReplicaEnvironmentPostProcessor}, so every transaction gets its own connection.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties, ReadReplicaProperties properties,
+                                                             Environment environment) {
+        HikariDataSource primary = pool("primary", dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(), environment);
+        primary.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReadReplicaProperties.Node node : properties.getNodes()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = pool(name, node.getUrl(),
+                    node.getUsername() == null ? primary.getUsername() : node.getUsername(),
+                    node.getPassword() == null ? primary.getPassword() : node.getPassword(), environment);
+            if (node.getMaximumPoolSize() != null) {
+                replica.setMaximumPoolSize(node.getMaximumPoolSize());
+            }
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, properties.getSelection(), properties.getValidationTimeout());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // the pools are not beans, so Boot's Hikari binder only ever sees the primary through the routing datasource
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> {
+            List<DataSource> pools = new ArrayList<>();
+            pools.add(replicaRoutingDataSource.getResolvedDefaultDataSource());
+            replicaRoutingDataSource.getReplicas().forEach(replica -> pools.add(replica.getDataSource()));
+            for (DataSource pool : pools) {
+                HikariDataSource hikari = (HikariDataSource) pool;
+                if (hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+                    try {
+                        hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    } catch (IllegalStateException e) {
+                        log.warn("Pool {} started before the meter registry, it is not reported", hikari.getPoolName());
+                    }
+                }
+            }
+        };
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         Environment environment) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+}
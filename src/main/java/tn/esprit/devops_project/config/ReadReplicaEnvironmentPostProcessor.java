@@ -0,0 +1,37 @@
+package tn.esprit.devops_project.config;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns {@code spring.jpa.open-in-view} off when {@code read-replica.enabled=true}. An entity manager held
+ * for the whole request keeps the connection of its first query, so a write following a read-only call
+ * outside a service transaction would go to the replica that served the read.
+ */
+public class ReadReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    private final Log log;
+
+    public ReadReplicaEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(ReadReplicaEnvironmentPostProcessor.class);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("read-replica.enabled", Boolean.class, false)) {
+            return;
+        }
+        if (environment.getProperty(OPEN_IN_VIEW, Boolean.class, false)) {
+            log.warn(OPEN_IN_VIEW + "=true is ignored with read replicas");
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("readReplicaOpenInView", Map.of(OPEN_IN_VIEW, false)));
+    }
+}
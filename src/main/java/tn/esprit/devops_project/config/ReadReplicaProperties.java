@@ -0,0 +1,39 @@
+package tn.esprit.devops_project.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas serving the read-only transactions. The primary stays the one of {@code spring.datasource},
+ * and replicas without credentials reuse the primary's.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "read-replica")
+public class ReadReplicaProperties {
+
+    boolean enabled;
+    Selection selection = Selection.ROUND_ROBIN;
+    Duration healthCheckInterval = Duration.ofSeconds(10);
+    Duration validationTimeout = Duration.ofSeconds(2);
+    List<Node> nodes = new ArrayList<>();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    @Getter
+    @Setter
+    public static class Node {
+        String url;
+        String username;
+        String password;
+        Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,103 @@
+package tn.esprit.devops_project.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tn.esprit.devops_project.entities.Operator;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.entities.Supplier;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for the reference entities, backed by bounded Caffeine caches.
+ * Each entity gets a read-write region named after its class, evicted by size and time to live,
+ * and can be switched off with {@code reference-cache.entities.<entity>.enabled=false}.
+ * Hibernate keeps the regions coherent on persist, merge, remove and JPQL bulk updates, and
+ * {@code findById} anywhere in the services reads through them.
+ * Collections are not cached: invoices and operator assignments are also written with plain JDBC.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReferenceCacheProperties.class)
+public class ReferenceCacheConfig {
+
+    static final Map<String, Class<?>> ENTITIES = Map.of(
+            "supplier", Supplier.class,
+            "stock", Stock.class,
+            "operator", Operator.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceCacheManager(ReferenceCacheProperties properties) {
+        // the provider shares managers by URI: give each application context its own
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("reference-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        ENTITIES.forEach((key, entity) -> {
+            ReferenceCacheProperties.Region region = region(properties, key);
+            if (region.isEnabled()) {
+                CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+                configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+                configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(region.getTtl().toMillis())));
+                configuration.setStoreByValue(false);
+                configuration.setNativeStatisticsEnabled(true);
+                cacheManager.createCache(entity.getName(), configuration);
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceCacheCustomizer(ReferenceCacheProperties properties, CacheManager referenceCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            ENTITIES.forEach((key, entity) -> {
+                if (region(properties, key).isEnabled()) {
+                    hibernateProperties.put(AvailableSettings.CLASS_CACHE_PREFIX + "." + entity.getName(), "read-write");
+                } else {
+                    log.info("Second-level cache disabled for {}", entity.getSimpleName());
+                }
+            });
+        };
+    }
+
+    /**
+     * Publishes the size, hit, miss and eviction counters of every region as {@code cache.*} metrics.
+     */
+    @Bean
+    public MeterBinder referenceCacheMetrics(CacheManager referenceCacheManager) {
+        return registry -> {
+            for (String name : referenceCacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = referenceCacheManager.getCache(name);
+                CaffeineCacheMetrics.monitor(registry, caffeineCache(cache), name.substring(name.lastIndexOf('.') + 1));
+            }
+        };
+    }
+
+    // the Caffeine JCache provider backs each cache with a Caffeine cache of the same key and value types
+    @SuppressWarnings("unchecked")
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache(Cache<Object, Object> cache) {
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+    }
+
+    private static ReferenceCacheProperties.Region region(ReferenceCacheProperties properties, String key) {
+        return properties.getEntities().getOrDefault(key, new ReferenceCacheProperties.Region());
+    }
+}
@@ -0,0 +1,29 @@
+package tn.esprit.devops_project.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Second-level cache settings of the reference entities, keyed by entity
+ * ({@code supplier}, {@code stock}, {@code operator}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "reference-cache")
+public class ReferenceCacheProperties {
+
+    Map<String, Region> entities = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        boolean enabled = true;
+        long maxSize = 10_000;
+        Duration ttl = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,94 @@
+package tn.esprit.devops_project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs servlet requests and the application task executor ({@code @Async}, MVC async and SSE work) on
+ * virtual threads when {@code execution.virtual-threads.enabled=true}. Needs a Java 21 runtime; the code
+ * still targets Java 11, so the virtual thread API is looked up reflectively and startup fails on older JVMs.
+ * Tomcat no longer bounds the requests in flight, so a {@link ConcurrencyLimitFilter} sized from the
+ * connection pool keeps the excess waiting briefly and then rejected, instead of queued inside Hikari.
+ * The pool is the primary one, which serves the writes, also when read replicas are enabled.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "execution.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor("virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            DataSource dataSource,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+            Environment environment,
+            @Value("${execution.concurrency-limit.per-connection:4}") int perConnection,
+            @Value("${execution.concurrency-limit.acquire-timeout:2s}") Duration acquireTimeout) throws SQLException {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        int connections = primaryPoolSize(routing == null ? dataSource : routing.getResolvedDefaultDataSource(), environment);
+        int limit = connections * perConnection;
+        log.info("Requests run on virtual threads, at most {} in flight for {} pooled connections", limit, connections);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit, acquireTimeout));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // with read replicas the datasource bean is a proxy over the routing datasource, the writes go to its primary pool
+    private static int primaryPoolSize(DataSource primary, Environment environment) throws SQLException {
+        if (primary != null && primary.isWrapperFor(HikariDataSource.class)) {
+            return primary.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        }
+        int configured = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        log.warn("The primary datasource is not a Hikari pool, the concurrency limit assumes {} connections"
+                + " from spring.datasource.hikari.maximum-pool-size", configured);
+        return configured;
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, running on " + Runtime.version(), e);
+        }
+    }
+}
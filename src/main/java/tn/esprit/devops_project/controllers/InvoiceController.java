@@ -1,10 +1,25 @@
 package tn.esprit.devops_project.controllers;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.devops_project.dto.ExportFormat;
+import tn.esprit.devops_project.dto.ImportReport;
+import tn.esprit.devops_project.dto.InvoicePage;
+import tn.esprit.devops_project.dto.OperatorAssignment;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
 import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.services.Iservices.IInvoiceExportService;
+import tn.esprit.devops_project.services.Iservices.IInvoiceImportService;
 import tn.esprit.devops_project.services.Iservices.IInvoiceService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 
@@ -14,12 +29,37 @@ import java.util.List;
 public class InvoiceController {
 
     IInvoiceService invoiceService;
+    IInvoiceImportService invoiceImportService;
+    IInvoiceExportService invoiceExportService;
 
     @GetMapping("/invoice")
     public List<Invoice> getInvoices() {
        return invoiceService.retrieveAllInvoices();
     }
 
+    @GetMapping("/invoice/page")
+    public InvoicePage getInvoicesPage(@RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "100") int size) {
+        return invoiceService.retrieveInvoicesPage(cursor, size);
+    }
+
+    @PostMapping(value = "/invoice/import", consumes = "application/x-ndjson")
+    public ImportReport importInvoices(InputStream body) throws IOException {
+        return invoiceImportService.importInvoices(body);
+    }
+
+    @GetMapping("/invoice/export/{startDate}/{endDate}")
+    public void exportInvoices(@PathVariable Date startDate,@PathVariable Date endDate,
+                               @RequestParam(defaultValue = "CSV") ExportFormat format,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        if (!format.isBinary()) {
+            response.setCharacterEncoding("UTF-8");
+        }
+        response.setHeader("Content-Disposition", "attachment; filename=invoices." + format.name().toLowerCase());
+        invoiceExportService.exportInvoices(startDate, endDate, format, response.getOutputStream());
+    }
+
     @GetMapping("/invoice/{invoiceId}")
     public Invoice retrieveInvoice(@PathVariable Long invoiceId) {
         return invoiceService.retrieveInvoice(invoiceId);
@@ -30,20 +70,78 @@ public class InvoiceController {
         invoiceService.cancelInvoice(invoiceId);
     }
 
+    @PutMapping("/invoice/archive")
+    public int archiveInvoices(@RequestBody List<Long> invoiceIds) {
+        return invoiceService.archiveInvoices(invoiceIds);
+    }
+
+    @PutMapping("/invoice/archive/supplier/{supplierId}")
+    public int archiveInvoicesBySupplier(@PathVariable Long supplierId) {
+        return invoiceService.archiveInvoicesBySupplier(supplierId);
+    }
+
+    @PutMapping("/invoice/archive/{startDate}/{endDate}")
+    public int archiveInvoicesBetweenDates(@PathVariable Date startDate,@PathVariable Date endDate) {
+        return invoiceService.archiveInvoicesBetweenDates(startDate, endDate);
+    }
+
     @GetMapping("/invoice/supplier/{supplierId}")
     public List<Invoice> getInvoicesBySupplier(@PathVariable Long supplierId) {
         return invoiceService.getInvoicesBySupplier(supplierId);
     }
 
+    @GetMapping("/invoice/supplier/{supplierId}/page")
+    public Page<Invoice> getInvoicesBySupplier(@PathVariable Long supplierId,
+                                               @RequestParam(defaultValue = "false") boolean includeArchived,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+                                               @PageableDefault(size = 50, sort = "idInvoice") Pageable pageable) {
+        return invoiceService.getInvoicesBySupplier(supplierId, includeArchived, startDate, endDate, pageable);
+    }
+
+    @GetMapping("/invoice/supplier/{supplierId}/summary")
+    public SupplierInvoiceSummary getSupplierInvoiceSummary(@PathVariable Long supplierId,
+                                                            @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+        return invoiceService.getSupplierInvoiceSummary(supplierId, includeArchived, startDate, endDate);
+    }
+
     @PutMapping(value = "/invoice/operator/{idOperator}/{idInvoice}")
     public void assignOperatorToInvoice(@PathVariable Long idOperator,@PathVariable Long idInvoice) {
         invoiceService.assignOperatorToInvoice(idOperator, idInvoice);
     }
 
+    @PutMapping("/invoice/operator/{idOperator}")
+    public void assignOperatorToInvoices(@PathVariable Long idOperator,@RequestBody List<Long> invoiceIds) {
+        invoiceService.assignOperatorToInvoices(idOperator, invoiceIds);
+    }
+
+    @PutMapping("/invoice/operator")
+    public void assignOperators(@RequestBody List<OperatorAssignment> assignments) {
+        invoiceService.assignOperators(assignments);
+    }
+
+    @PutMapping("/invoice/operator/auto")
+    public Long assignLeastLoadedOperator(@RequestBody List<Long> invoiceIds) {
+        return invoiceService.assignLeastLoadedOperator(invoiceIds);
+    }
+
+    @PutMapping("/invoice/operator/unassign")
+    public void unassignOperator(@RequestBody List<Long> invoiceIds) {
+        invoiceService.unassignOperator(invoiceIds);
+    }
+
     @GetMapping("/invoice/price/{startDate}/{endDate}")
-    public float getTotalAmountInvoiceBetweenDates(@PathVariable Date startDate,@PathVariable Date endDate){
+    public BigDecimal getTotalAmountInvoiceBetweenDates(@PathVariable Date startDate,@PathVariable Date endDate){
         return invoiceService.getTotalAmountInvoiceBetweenDates(startDate, endDate);
     }
 
+    @GetMapping("/invoice/price/supplier/{supplierId}/{startDate}/{endDate}")
+    public BigDecimal getSupplierTotalAmountInvoiceBetweenDates(@PathVariable Long supplierId,
+                                                                @PathVariable Date startDate,@PathVariable Date endDate){
+        return invoiceService.getSupplierTotalAmountInvoiceBetweenDates(supplierId, startDate, endDate);
+    }
+
 
 }
@@ -2,7 +2,10 @@ package tn.esprit.devops_project.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tn.esprit.devops_project.dto.OperatorWorkload;
 import tn.esprit.devops_project.entities.Operator;
+import tn.esprit.devops_project.services.EntityVersions;
 import tn.esprit.devops_project.services.Iservices.IOperatorService;
 
 import java.util.List;
@@ -12,14 +15,36 @@ import java.util.List;
 public class OperatorController {
 
 	IOperatorService operatorService;
+	EntityVersions entityVersions;
 	
 	@GetMapping("/operator")
-	public List<Operator> getOperators() {
+	public List<Operator> getOperators(WebRequest request) {
+		if (request.checkNotModified(entityVersions.etag(Operator.class))) {
+			return null;
+		}
 		return operatorService.retrieveAllOperators();
 	}
 
+	@GetMapping("/operator/workload")
+	public List<OperatorWorkload> getWorkloads() {
+		return operatorService.retrieveWorkloads();
+	}
+
+	@GetMapping("/operator/workload/least-loaded")
+	public List<OperatorWorkload> getLeastLoadedOperators(@RequestParam(defaultValue = "1") int limit) {
+		return operatorService.retrieveLeastLoadedOperators(limit);
+	}
+
+	@GetMapping("/operator/{operatorId}/workload")
+	public OperatorWorkload getWorkload(@PathVariable Long operatorId) {
+		return operatorService.retrieveWorkload(operatorId);
+	}
+
 	@GetMapping("/operator/{operatorId}")
-	public Operator retrieveoperator(@PathVariable Long operatorId) {
+	public Operator retrieveoperator(@PathVariable Long operatorId, WebRequest request) {
+		if (request.checkNotModified(entityVersions.etag(Operator.class))) {
+			return null;
+		}
 		return operatorService.retrieveOperator(operatorId);
 	}
 
@@ -1,11 +1,23 @@
 package tn.esprit.devops_project.controllers;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.esprit.devops_project.dto.ImportReport;
+import tn.esprit.devops_project.dto.LowStockAlert;
 import tn.esprit.devops_project.entities.Product;
 import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.ProductReservation;
+import tn.esprit.devops_project.entities.ReservationLine;
+import tn.esprit.devops_project.services.EntityVersions;
+import tn.esprit.devops_project.services.Iservices.ILowStockAlertService;
+import tn.esprit.devops_project.services.Iservices.IProductImportService;
 import tn.esprit.devops_project.services.Iservices.IProductService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -14,31 +26,101 @@ import java.util.List;
 public class ProductController {
 
     private final IProductService productService;
+    private final IProductImportService productImportService;
+    private final ILowStockAlertService lowStockAlertService;
+    private final EntityVersions entityVersions;
 
     @PostMapping("/product/{idStock}")
     Product addProduct(@RequestBody Product product,@PathVariable Long idStock){
         return productService.addProduct(product,idStock);
     }
 
+    @PostMapping(value = "/product/{idStock}/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ImportReport importProductsJson(@PathVariable Long idStock, InputStream body) throws IOException {
+        return productImportService.importProductsJson(idStock, body);
+    }
+
+    @PostMapping(value = "/product/{idStock}/batch", consumes = "text/csv")
+    ImportReport importProductsCsv(@PathVariable Long idStock, InputStream body) throws IOException {
+        return productImportService.importProductsCsv(idStock, body);
+    }
+
     @GetMapping("/product/{id}")
-    Product retrieveProduct(@PathVariable Long id){
+    Product retrieveProduct(@PathVariable Long id, WebRequest request){
+        if (request.checkNotModified(entityVersions.etag(Product.class))) {
+            return null;
+        }
         return productService.retrieveProduct(id);
     }
 
     @GetMapping("/product")
-    List<Product> retreiveAllProduct(){
+    List<Product> retreiveAllProduct(WebRequest request){
+        if (request.checkNotModified(entityVersions.etag(Product.class))) {
+            return null;
+        }
         return productService.retreiveAllProduct();
     }
     @GetMapping("/product/stock/{id}")
-    List<Product> retreiveProductStock(@PathVariable Long id){
+    List<Product> retreiveProductStock(@PathVariable Long id, WebRequest request){
+        if (request.checkNotModified(entityVersions.etag(Product.class))) {
+            return null;
+        }
         return productService.retreiveProductStock(id);
     }
 
+    @GetMapping("/product/search")
+    List<Product> searchProducts(@RequestParam(required = false) String q,
+                                 @RequestParam(required = false) ProductCategory category,
+                                 @RequestParam(required = false) Long idStock,
+                                 @RequestParam(required = false) Float minPrice,
+                                 @RequestParam(required = false) Float maxPrice,
+                                 @RequestParam(defaultValue = "20") int limit){
+        return productService.searchProducts(q, category, idStock, minPrice, maxPrice, limit);
+    }
+
     @GetMapping("/productCategoy/{category}")
-    List<Product> retrieveProductByCategory(@PathVariable ProductCategory category){
+    List<Product> retrieveProductByCategory(@PathVariable ProductCategory category, WebRequest request){
+        if (request.checkNotModified(entityVersions.etag(Product.class))) {
+            return null;
+        }
         return productService.retrieveProductByCategory(category);
     }
 
+    @PostMapping("/product/reservation")
+    ProductReservation reserveProducts(@RequestBody List<ReservationLine> lines){
+        return productService.reserveProducts(lines);
+    }
+
+    @PutMapping("/product/reservation/{id}/commit")
+    ProductReservation commitReservation(@PathVariable Long id){
+        return productService.commitReservation(id);
+    }
+
+    @PutMapping("/product/reservation/{id}/release")
+    ProductReservation releaseReservation(@PathVariable Long id){
+        return productService.releaseReservation(id);
+    }
+
+    @GetMapping("/product/alert")
+    List<LowStockAlert> retrieveActiveAlerts(@RequestParam(required = false) ProductCategory category){
+        return lowStockAlertService.retrieveActiveAlerts(category);
+    }
+
+    @GetMapping(value = "/product/alert/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamAlerts(){
+        return lowStockAlertService.subscribe();
+    }
+
+    @PutMapping("/product/alert/threshold/product/{id}")
+    void setProductThreshold(@PathVariable Long id, @RequestParam(required = false) Integer threshold){
+        lowStockAlertService.setProductThreshold(id, threshold);
+    }
+
+    @PutMapping("/product/alert/threshold/category/{category}")
+    void setCategoryThreshold(@PathVariable ProductCategory category, @RequestParam(required = false) Integer threshold){
+        lowStockAlertService.setCategoryThreshold(category, threshold);
+    }
+
     @DeleteMapping("/product/{id}")
     void deleteProduct(@PathVariable Long id){
         productService.deleteProduct(id);
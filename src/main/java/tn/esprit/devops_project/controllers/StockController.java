@@ -3,7 +3,12 @@ package tn.esprit.devops_project.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tn.esprit.devops_project.dto.CategoryValuation;
+import tn.esprit.devops_project.dto.StockValuation;
+import tn.esprit.devops_project.entities.Product;
 import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.services.EntityVersions;
 import tn.esprit.devops_project.services.Iservices.IStockService;
 import java.util.List;
 
@@ -13,6 +18,7 @@ import java.util.List;
 public class StockController {
 
     IStockService stockService;
+    EntityVersions entityVersions;
 
     @PostMapping("/stock")
     Stock addStock(@RequestBody Stock stock){
@@ -20,14 +26,41 @@ public class StockController {
     }
 
     @GetMapping("/stock/{id}")
-    Stock retrieveStock(@PathVariable Long id){
+    Stock retrieveStock(@PathVariable Long id, WebRequest request){
+        // a stock is serialized with its products
+        if (request.checkNotModified(entityVersions.etag(Stock.class, Product.class))) {
+            return null;
+        }
         return stockService.retrieveStock(id);
     }
 
     @GetMapping("/stock")
-    List<Stock> retrieveAllStock(){
+    List<Stock> retrieveAllStock(WebRequest request){
+        if (request.checkNotModified(entityVersions.etag(Stock.class, Product.class))) {
+            return null;
+        }
         return stockService.retrieveAllStock();
     }
 
+    @GetMapping("/stock/summary")
+    List<StockValuation> retrieveStockValuations(){
+        return stockService.retrieveStockValuations();
+    }
+
+    @GetMapping("/stock/{id}/valuation")
+    StockValuation retrieveStockValuation(@PathVariable Long id){
+        return stockService.retrieveStockValuation(id);
+    }
+
+    @GetMapping("/stock/{id}/valuation/category")
+    List<CategoryValuation> retrieveStockCategoryValuations(@PathVariable Long id){
+        return stockService.retrieveCategoryValuations(id);
+    }
+
+    @GetMapping("/stock/valuation/category")
+    List<CategoryValuation> retrieveCategoryValuations(){
+        return stockService.retrieveCategoryValuations();
+    }
+
 
 }
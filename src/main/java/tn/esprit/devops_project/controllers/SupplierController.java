@@ -2,7 +2,11 @@ package tn.esprit.devops_project.controllers;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tn.esprit.devops_project.dto.SupplierScorecard;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
 import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.services.EntityVersions;
 import tn.esprit.devops_project.services.Iservices.ISupplierService;
 import java.util.List;
 
@@ -12,14 +16,44 @@ import java.util.List;
 public class SupplierController {
 
 	ISupplierService supplierService;
+	EntityVersions entityVersions;
 
 	@GetMapping("/supplier")
-	public List<Supplier> getSuppliers() {
+	public List<Supplier> getSuppliers(WebRequest request) {
+		if (request.checkNotModified(entityVersions.etag(Supplier.class))) {
+			return null;
+		}
 		return supplierService.retrieveAllSuppliers();
 	}
 
+	@GetMapping("/supplier/code/{code}")
+	public Supplier retrieveSupplierByCode(@PathVariable String code, WebRequest request) {
+		if (request.checkNotModified(entityVersions.etag(Supplier.class))) {
+			return null;
+		}
+		return supplierService.retrieveSupplierByCode(code);
+	}
+
+	@GetMapping("/supplier/code")
+	public List<Supplier> retrieveSuppliersByCodes(@RequestParam List<String> codes) {
+		return supplierService.retrieveSuppliersByCodes(codes);
+	}
+
+	@GetMapping("/supplier/scorecard")
+	public SupplierScorecardSnapshot getScorecards() {
+		return supplierService.retrieveScorecards();
+	}
+
+	@GetMapping("/supplier/{supplierId}/scorecard")
+	public SupplierScorecard getScorecard(@PathVariable Long supplierId) {
+		return supplierService.retrieveScorecard(supplierId);
+	}
+
 	@GetMapping("/supplier/{supplierId}")
-	public Supplier retrieveSupplier(@PathVariable Long supplierId) {
+	public Supplier retrieveSupplier(@PathVariable Long supplierId, WebRequest request) {
+		if (request.checkNotModified(entityVersions.etag(Supplier.class))) {
+			return null;
+		}
 		return supplierService.retrieveSupplier(supplierId);
 	}
 
@@ -0,0 +1,17 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CategoryValuation {
+    ProductCategory category;
+    Long productCount;
+    Long totalUnits;
+    Double totalValue;
+}
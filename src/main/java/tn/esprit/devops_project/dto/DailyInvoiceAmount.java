@@ -0,0 +1,18 @@
+package tn.esprit.devops_project.dto;
+
+import java.util.Date;
+
+/**
+ * Per day and supplier aggregate of non-archived invoices, computed from the invoice table.
+ */
+public interface DailyInvoiceAmount {
+
+	Date getInvoiceDate();
+
+	Long getSupplierId();
+
+	Long getInvoiceCount();
+
+	Double getTotalAmount();
+
+}
@@ -0,0 +1,22 @@
+package tn.esprit.devops_project.dto;
+
+public enum ExportFormat {
+    CSV("text/csv", false), NDJSON("application/x-ndjson", false),
+    SMILE("application/x-jackson-smile", true), CBOR("application/cbor", true);
+
+    private final String contentType;
+    private final boolean binary;
+
+    ExportFormat(String contentType, boolean binary) {
+        this.contentType = contentType;
+        this.binary = binary;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+}
@@ -0,0 +1,50 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many records were written, how many were rejected and why.
+ * Only the first {@link #MAX_ERRORS} errors are kept.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportReport {
+
+	public static final int MAX_ERRORS = 1000;
+
+	long accepted;
+	long rejected;
+	List<Error> errors = new ArrayList<>();
+
+	public void accept(long count) {
+		accepted += count;
+	}
+
+	public void reject(long line, String message) {
+		rejected++;
+		if (errors.size() < MAX_ERRORS) {
+			errors.add(new Error(line, message));
+		}
+	}
+
+	// driver and parser exceptions do not always carry a message, the class name still tells what went wrong
+	public void reject(long line, String reason, Throwable cause) {
+		String message = cause.getMessage();
+		reject(line, reason + (message == null ? cause.getClass().getSimpleName() : message));
+	}
+
+	@Getter
+	@AllArgsConstructor
+	@FieldDefaults(level = AccessLevel.PRIVATE)
+	public static class Error {
+		long line;
+		String message;
+	}
+
+}
@@ -0,0 +1,20 @@
+package tn.esprit.devops_project.dto;
+
+import java.util.Date;
+
+/**
+ * Just the invoice columns that feed the amount rollups, read without hydrating the entity.
+ */
+public interface InvoiceAmountRow {
+
+	Long getIdInvoice();
+
+	Date getDateCreationInvoice();
+
+	Long getSupplierId();
+
+	Float getAmountInvoice();
+
+	Boolean getArchived();
+
+}
@@ -0,0 +1,27 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+/**
+ * Flat invoice row streamed by the export. Read through a constructor expression so rows
+ * never enter the persistence context.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceExportRow {
+
+	Long idInvoice;
+	Date dateCreationInvoice;
+	Date dateLastModificationInvoice;
+	float amountInvoice;
+	float amountDiscount;
+	Boolean archived;
+	Long supplierId;
+
+}
@@ -0,0 +1,37 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One NDJSON line of an invoice import. When amountInvoice is omitted it is computed
+ * from the detail lines.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceImportRecord {
+
+	Long supplierId;
+	Float amountInvoice;
+	float amountDiscount;
+	Date dateCreationInvoice;
+	List<Line> details;
+
+	@Getter
+	@Setter
+	@AllArgsConstructor
+	@NoArgsConstructor
+	@FieldDefaults(level = AccessLevel.PRIVATE)
+	public static class Line {
+		Long productId;
+		int quantity;
+		float price;
+	}
+
+}
@@ -0,0 +1,20 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import tn.esprit.devops_project.entities.Invoice;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoicePage {
+
+	List<Invoice> invoices;
+	// opaque cursor to pass back to fetch the following page, null on the last page
+	String nextCursor;
+
+}
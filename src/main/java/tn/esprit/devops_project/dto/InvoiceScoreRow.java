@@ -0,0 +1,21 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+/**
+ * The invoice columns the supplier scorecards are computed from.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceScoreRow {
+	Long idInvoice;
+	Long supplierId;
+	float amountInvoice;
+	float amountDiscount;
+	Boolean archived;
+	Date dateCreationInvoice;
+}
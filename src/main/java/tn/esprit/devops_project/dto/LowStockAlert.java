@@ -0,0 +1,21 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LowStockAlert {
+    Long idProduct;
+    String title;
+    ProductCategory category;
+    int quantity;
+    int threshold;
+    Date raisedAt;
+}
@@ -0,0 +1,23 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Invoices assigned to an operator, open ones being those not archived.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OperatorWorkload {
+	Long idOperateur;
+	String fname;
+	String lname;
+	Long assignedCount;
+	Long openCount;
+	Long archivedCount;
+	Double totalAmount;
+	Double openAmount;
+}
@@ -0,0 +1,20 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+/**
+ * One product of a bulk import into a stock.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductImportRecord {
+    String title;
+    Float price;
+    Integer quantity;
+    ProductCategory category;
+}
@@ -0,0 +1,14 @@
+package tn.esprit.devops_project.dto;
+
+import tn.esprit.devops_project.entities.ProductCategory;
+
+/**
+ * The product columns the search index needs, read without hydrating products or stocks.
+ */
+public interface ProductSearchRow {
+    Long getIdProduct();
+    String getTitle();
+    ProductCategory getCategory();
+    Long getStockId();
+    Float getPrice();
+}
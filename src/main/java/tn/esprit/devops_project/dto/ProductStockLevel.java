@@ -0,0 +1,25 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+/**
+ * Current quantity of a product, what the low-stock alerts are evaluated on.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductStockLevel {
+    Long idProduct;
+    String title;
+    ProductCategory category;
+    int quantity;
+
+    public static ProductStockLevel of(Product product) {
+        return new ProductStockLevel(product.getIdProduct(), product.getTitle(), product.getCategory(), product.getQuantity());
+    }
+}
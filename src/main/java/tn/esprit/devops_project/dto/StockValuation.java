@@ -0,0 +1,21 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Stock summary without its products: how many products it holds, how many units
+ * and what they are worth (price * quantity).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StockValuation {
+    Long idStock;
+    String title;
+    Long productCount;
+    Long totalUnits;
+    Double totalValue;
+}
@@ -0,0 +1,6 @@
+package tn.esprit.devops_project.dto;
+
+public interface SupplierCode {
+	String getCode();
+	Long getIdSupplier();
+}
@@ -0,0 +1,17 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SupplierInvoiceSummary {
+
+	Long invoiceCount;
+	Double totalAmount;
+	Double totalDiscount;
+
+}
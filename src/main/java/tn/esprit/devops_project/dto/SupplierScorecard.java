@@ -0,0 +1,38 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SupplierScorecard {
+	Long idSupplier;
+	String code;
+	String label;
+	long invoiceCount;
+	long archivedCount;
+	double totalAmount;
+	double averageAmount;
+	double totalDiscount;
+	// totalDiscount / totalAmount
+	double discountRatio;
+	// share of the invoices that were archived or cancelled
+	double archiveRate;
+	// one entry per month with invoices, oldest first
+	List<MonthlyTotal> trend = new ArrayList<>();
+
+	@Getter
+	@AllArgsConstructor
+	@FieldDefaults(level = AccessLevel.PRIVATE)
+	public static class MonthlyTotal {
+		String month;
+		long invoiceCount;
+		double totalAmount;
+	}
+}
@@ -0,0 +1,16 @@
+package tn.esprit.devops_project.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SupplierScorecardSnapshot {
+	Date computedAt;
+	long computeMillis;
+	List<SupplierScorecard> scorecards;
+}
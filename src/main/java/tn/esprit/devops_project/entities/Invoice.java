@@ -3,10 +3,13 @@ package tn.esprit.devops_project.entities;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.Set;
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Temporal;
@@ -33,10 +36,13 @@ public class Invoice implements Serializable {
 	Date dateCreationInvoice;
 	@Temporal(TemporalType.DATE)
 	Date dateLastModificationInvoice;
-	Boolean archived;
+	// never null since V4, an invoice is either open (false) or archived
+	@Column(nullable = false)
+	Boolean archived = false;
 	@OneToMany(mappedBy = "invoice")
 	Set<InvoiceDetail> invoiceDetails;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "supplier_id_supplier")
     @JsonIgnore
     Supplier supplier;
 
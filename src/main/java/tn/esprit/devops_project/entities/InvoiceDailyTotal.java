@@ -0,0 +1,33 @@
+package tn.esprit.devops_project.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Running total of the non-archived invoices created on one day for one supplier,
+ * kept up to date by {@link tn.esprit.devops_project.services.InvoiceRollupService}.
+ * Invoices without a supplier are accounted under supplierId 0. The upserts rely on the day and
+ * supplier being unique (uk_invoice_daily_total_date_supplier in the V2 migration).
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InvoiceDailyTotal implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long idInvoiceDailyTotal;
+    @Temporal(TemporalType.DATE)
+    Date invoiceDate;
+    Long supplierId;
+    long totalCents;
+    long invoiceCount;
+}
@@ -7,6 +7,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
 import javax.persistence.OneToMany;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -29,7 +31,11 @@ public class Operator implements Serializable{
 	String fname;
 	String lname;
 	String password;
+	// names spelled out because OperatorInvoiceRepository writes this join table with plain JDBC
 	@OneToMany
+	@JoinTable(name = "operator_invoices",
+			joinColumns = @JoinColumn(name = "operator_id_operateur"),
+			inverseJoinColumns = @JoinColumn(name = "invoices_id_invoice"))
 	@JsonIgnore
 	Set<Invoice> invoices;
 	
@@ -0,0 +1,34 @@
+package tn.esprit.devops_project.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Units taken out of {@link Product#getQuantity()} for an order. The quantities are decremented
+ * when the reservation is made; committing only records the sale, releasing puts the units back.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductReservation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long idReservation;
+    @Enumerated(EnumType.STRING)
+    ReservationStatus status;
+    @Temporal(TemporalType.TIMESTAMP)
+    Date dateCreation;
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "product_reservation_line", joinColumns = @JoinColumn(name = "reservation_id"))
+    List<ReservationLine> lines;
+}
@@ -0,0 +1,5 @@
+package tn.esprit.devops_project.entities;
+
+public enum ReservationStatus {
+    RESERVED, COMMITTED, RELEASED
+}
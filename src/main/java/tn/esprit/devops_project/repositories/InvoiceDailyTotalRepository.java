@@ -0,0 +1,20 @@
+package tn.esprit.devops_project.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.devops_project.entities.InvoiceDailyTotal;
+
+import java.util.Date;
+
+public interface InvoiceDailyTotalRepository extends JpaRepository<InvoiceDailyTotal, Long> {
+
+	@Query("SELECT coalesce(sum(t.totalCents), 0) FROM InvoiceDailyTotal t where t.invoiceDate between :startDate and :endDate")
+	long sumCentsBetweenDates(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+	@Query("SELECT coalesce(sum(t.totalCents), 0) FROM InvoiceDailyTotal t where t.supplierId = :supplierId"
+			+ " and t.invoiceDate between :startDate and :endDate")
+	long sumSupplierCentsBetweenDates(@Param("supplierId") Long supplierId, @Param("startDate") Date startDate,
+									  @Param("endDate") Date endDate);
+
+}
@@ -0,0 +1,54 @@
+package tn.esprit.devops_project.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Adds to a daily invoice total in one statement, creating the row when it is the first invoice
+ * of the day for the supplier. An update followed by an insert lets two transactions both insert
+ * the same day and supplier, and on MySQL the gap locks of the empty update can deadlock them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InvoiceDailyTotalUpsertRepository {
+
+	static final String MYSQL_UPSERT = "insert into invoice_daily_total (invoice_date, supplier_id, total_cents, invoice_count)"
+			+ " values (?, ?, ?, ?) on duplicate key update total_cents = total_cents + values(total_cents),"
+			+ " invoice_count = invoice_count + values(invoice_count)";
+	static final String MERGE = "merge into invoice_daily_total t using (values (cast(? as date), cast(? as bigint),"
+			+ " cast(? as bigint), cast(? as bigint))) d (invoice_date, supplier_id, total_cents, invoice_count)"
+			+ " on t.invoice_date = d.invoice_date and t.supplier_id = d.supplier_id"
+			+ " when matched then update set total_cents = t.total_cents + d.total_cents,"
+			+ " invoice_count = t.invoice_count + d.invoice_count"
+			+ " when not matched then insert (invoice_date, supplier_id, total_cents, invoice_count)"
+			+ " values (d.invoice_date, d.supplier_id, d.total_cents, d.invoice_count)";
+
+	final JdbcTemplate jdbcTemplate;
+	private volatile String upsert;
+
+	public void addToTotal(Date invoiceDate, long supplierId, long cents, long count) {
+		java.sql.Date day = new java.sql.Date(invoiceDate.getTime());
+		try {
+			jdbcTemplate.update(upsert(), day, supplierId, cents, count);
+		} catch (DuplicateKeyException e) {
+			// MERGE is not atomic on every database: a concurrent insert of the same row won, it now matches
+			jdbcTemplate.update(upsert(), day, supplierId, cents, count);
+		}
+	}
+
+	private String upsert() {
+		if (upsert == null) {
+			String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+					connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT));
+			upsert = product.contains("mysql") || product.contains("mariadb") ? MYSQL_UPSERT : MERGE;
+		}
+		return upsert;
+	}
+
+}
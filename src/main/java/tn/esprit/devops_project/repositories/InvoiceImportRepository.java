@@ -0,0 +1,73 @@
+package tn.esprit.devops_project.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDetail;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserts invoices and their detail lines as JDBC batches. The tables keep their identity
+ * columns: the generated invoice ids are read back from the batch (MySQL rewrites it into
+ * multi-row inserts with rewriteBatchedStatements) instead of one round trip per row.
+ * Runs on the connection of the surrounding Spring transaction.
+ */
+@Repository
+@AllArgsConstructor
+public class InvoiceImportRepository {
+
+	static final String INSERT_INVOICE = "insert into invoice (amount_discount, amount_invoice, date_creation_invoice,"
+			+ " date_last_modification_invoice, archived, supplier_id_supplier) values (?, ?, ?, ?, ?, ?)";
+	static final String INSERT_INVOICE_DETAIL = "insert into invoice_detail (quantity, price, product_id_product,"
+			+ " invoice_id_invoice) values (?, ?, ?, ?)";
+
+	final JdbcTemplate jdbcTemplate;
+
+	// sets the generated id on each invoice
+	public void insertInvoices(List<Invoice> invoices) {
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (PreparedStatement ps = connection.prepareStatement(INSERT_INVOICE, Statement.RETURN_GENERATED_KEYS)) {
+				for (Invoice invoice : invoices) {
+					ps.setFloat(1, invoice.getAmountDiscount());
+					ps.setFloat(2, invoice.getAmountInvoice());
+					ps.setDate(3, new java.sql.Date(invoice.getDateCreationInvoice().getTime()));
+					ps.setDate(4, new java.sql.Date(invoice.getDateLastModificationInvoice().getTime()));
+					ps.setBoolean(5, invoice.getArchived());
+					if (invoice.getSupplier() == null) {
+						ps.setNull(6, Types.BIGINT);
+					} else {
+						ps.setLong(6, invoice.getSupplier().getIdSupplier());
+					}
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					for (Invoice invoice : invoices) {
+						if (!keys.next()) {
+							throw new IllegalStateException("Missing generated key for imported invoice");
+						}
+						invoice.setIdInvoice(keys.getLong(1));
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	public void insertInvoiceDetails(List<InvoiceDetail> details) {
+		jdbcTemplate.batchUpdate(INSERT_INVOICE_DETAIL, details, details.size(), (ps, detail) -> {
+			ps.setInt(1, detail.getQuantity());
+			ps.setFloat(2, detail.getPrice());
+			ps.setLong(3, detail.getProduct().getIdProduct());
+			ps.setLong(4, detail.getInvoice().getIdInvoice());
+		});
+	}
+
+}
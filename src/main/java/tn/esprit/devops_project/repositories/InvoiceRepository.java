@@ -1,28 +1,118 @@
 package tn.esprit.devops_project.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.dto.DailyInvoiceAmount;
+import tn.esprit.devops_project.dto.InvoiceAmountRow;
+import tn.esprit.devops_project.dto.InvoiceExportRow;
+import tn.esprit.devops_project.dto.InvoiceScoreRow;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
 import tn.esprit.devops_project.entities.Invoice;
 import tn.esprit.devops_project.entities.Supplier;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
+	// invoices are serialized with their detail lines and products: fetch the whole graph in one query
+	@Override
+	@Query("SELECT DISTINCT i FROM Invoice i left join fetch i.invoiceDetails d left join fetch d.product")
+	List<Invoice> findAll();
+
+	// for reads that serialize the invoice, write paths use the plain findById
+	@EntityGraph(attributePaths = {"invoiceDetails", "invoiceDetails.product"})
+	@Query("SELECT i FROM Invoice i where i.idInvoice = :id")
+	Optional<Invoice> retrieveInvoiceWithDetails(@Param("id") Long id);
+
+	@Query("SELECT DISTINCT i FROM Invoice i left join fetch i.invoiceDetails d left join fetch d.product"
+			+ " where i.idInvoice in :ids order by i.idInvoice")
+	List<Invoice> retrieveInvoicesWithDetails(@Param("ids") Collection<Long> ids);
+
 	
 	@Query("SELECT i FROM Invoice i where i.supplier=:supplier and i.archived=false")
 	public List<Invoice> retrieveInvoicesBySupplier(@Param("supplier") Supplier supplier);
 
+	String SUPPLIER_INVOICES = " FROM Invoice i where i.supplier.idSupplier = :supplierId and i.archived in :archived"
+			+ " and i.dateCreationInvoice between :startDate and :endDate";
+
+	// pages ids only (served by idx_invoice_supplier_archived_date), the graph is fetched by id afterwards
+	@Query(value = "SELECT i.idInvoice" + SUPPLIER_INVOICES, countQuery = "SELECT count(i)" + SUPPLIER_INVOICES)
+	Page<Long> retrieveSupplierInvoiceIds(@Param("supplierId") Long supplierId, @Param("archived") Collection<Boolean> archived,
+										  @Param("startDate") Date startDate, @Param("endDate") Date endDate, Pageable pageable);
+
+	@Query("SELECT new tn.esprit.devops_project.dto.SupplierInvoiceSummary(count(i), coalesce(sum(i.amountInvoice), 0),"
+			+ " coalesce(sum(i.amountDiscount), 0))" + SUPPLIER_INVOICES)
+	SupplierInvoiceSummary retrieveSupplierInvoiceSummary(@Param("supplierId") Long supplierId,
+														  @Param("archived") Collection<Boolean> archived,
+														  @Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
 	
-	@Query("SELECT sum(i.amountInvoice) FROM Invoice i where  i.dateCreationInvoice between :startDate"
-			+ " and :endDate and i.archived=false")
-	float getTotalAmountInvoiceBetweenDates(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+	// base table totals the daily rollups are reconciled against
+	@Query("SELECT i.dateCreationInvoice as invoiceDate, s.idSupplier as supplierId, count(i) as invoiceCount,"
+			+ " sum(i.amountInvoice) as totalAmount FROM Invoice i left join i.supplier s"
+			+ " where i.archived=false and i.dateCreationInvoice is not null group by i.dateCreationInvoice, s.idSupplier")
+	List<DailyInvoiceAmount> retrieveDailyInvoiceAmounts();
+
+	// keyset pagination: seeks past the last id seen instead of using an offset.
+	// Only ids are paged here, fetch-joining the details would force Hibernate to paginate in memory
+	@Query("SELECT i.idInvoice FROM Invoice i where i.idInvoice > :afterId order by i.idInvoice")
+	List<Long> retrieveInvoiceIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	// forward-only cursor: MySQL only honours the fetch size with useCursorFetch=true on the URL
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT new tn.esprit.devops_project.dto.InvoiceExportRow(i.idInvoice, i.dateCreationInvoice,"
+			+ " i.dateLastModificationInvoice, i.amountInvoice, i.amountDiscount, i.archived, s.idSupplier)"
+			+ " FROM Invoice i left join i.supplier s where i.dateCreationInvoice between :startDate and :endDate"
+			+ " order by i.idInvoice")
+	Stream<InvoiceExportRow> streamInvoicesBetweenDates(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+	// keyset chunks: the id of the last row of a chunk is the afterId of the next one
+	@Query("SELECT new tn.esprit.devops_project.dto.InvoiceScoreRow(i.idInvoice, s.idSupplier, i.amountInvoice,"
+			+ " i.amountDiscount, i.archived, i.dateCreationInvoice) FROM Invoice i left join i.supplier s"
+			+ " where i.idInvoice > :afterId order by i.idInvoice")
+	List<InvoiceScoreRow> retrieveScoreRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	String OPEN_INVOICE_ROWS = "SELECT i.idInvoice as idInvoice, i.dateCreationInvoice as dateCreationInvoice,"
+			+ " s.idSupplier as supplierId, i.amountInvoice as amountInvoice, i.archived as archived"
+			+ " FROM Invoice i left join i.supplier s where i.archived=false";
+
+	// rows are locked so a concurrent archive cannot subtract the same invoice from the rollups twice
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(OPEN_INVOICE_ROWS + " and i.idInvoice in :ids")
+	List<InvoiceAmountRow> retrieveOpenInvoiceRows(@Param("ids") Collection<Long> ids);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(OPEN_INVOICE_ROWS + " and s.idSupplier = :supplierId and i.idInvoice > :afterId order by i.idInvoice")
+	List<InvoiceAmountRow> retrieveOpenInvoiceRowsBySupplier(@Param("supplierId") Long supplierId,
+															 @Param("afterId") Long afterId, Pageable pageable);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(OPEN_INVOICE_ROWS + " and i.dateCreationInvoice between :startDate and :endDate and i.idInvoice > :afterId"
+			+ " order by i.idInvoice")
+	List<InvoiceAmountRow> retrieveOpenInvoiceRowsBetweenDates(@Param("startDate") Date startDate,
+															   @Param("endDate") Date endDate,
+															   @Param("afterId") Long afterId, Pageable pageable);
 
 	@Modifying
-	@Query("update Invoice i set i.archived=true where i.idInvoice=?1")
-	void updateInvoice(Long id);
+	@Query("update Invoice i set i.archived=true, i.dateLastModificationInvoice=:date where i.idInvoice in :ids")
+	int archiveInvoices(@Param("ids") Collection<Long> ids, @Param("date") Date date);
+
+	@Query("SELECT i.idInvoice FROM Invoice i where i.idInvoice in :ids")
+	List<Long> retrieveExistingIds(@Param("ids") Collection<Long> ids);
 	
 }
@@ -0,0 +1,39 @@
+package tn.esprit.devops_project.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.dto.OperatorAssignment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the Operator.invoices join table directly, so assigning invoices never has to
+ * load an operator's whole invoice collection. An invoice belongs to at most one operator
+ * (the join table is unique on the invoice column), so assigning replaces any previous row.
+ */
+@Repository
+@AllArgsConstructor
+public class OperatorInvoiceRepository {
+
+	static final int BATCH_SIZE = 500;
+
+	final JdbcTemplate jdbcTemplate;
+
+	public void assign(List<OperatorAssignment> assignments) {
+		unassign(assignments.stream().map(OperatorAssignment::getIdInvoice).distinct().collect(Collectors.toList()));
+		jdbcTemplate.batchUpdate("insert into operator_invoices (operator_id_operateur, invoices_id_invoice) values (?, ?)",
+				assignments, BATCH_SIZE, (ps, assignment) -> {
+					ps.setLong(1, assignment.getIdOperator());
+					ps.setLong(2, assignment.getIdInvoice());
+				});
+	}
+
+	public void unassign(Collection<Long> invoiceIds) {
+		jdbcTemplate.batchUpdate("delete from operator_invoices where invoices_id_invoice = ?",
+				invoiceIds, BATCH_SIZE, (ps, idInvoice) -> ps.setLong(1, idInvoice));
+	}
+
+}
@@ -1,9 +1,37 @@
 package tn.esprit.devops_project.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.dto.OperatorWorkload;
 import tn.esprit.devops_project.entities.Operator;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface OperatorRepository extends CrudRepository<Operator, Long> {
 
+	// aggregated over the operator_invoices join table, Operator.invoices is never loaded
+	String OPEN = "(i.idInvoice is not null and i.archived = false)";
+	String WORKLOAD = "SELECT new tn.esprit.devops_project.dto.OperatorWorkload(o.idOperateur, o.fname, o.lname, count(i),"
+			+ " sum(case when " + OPEN + " then 1 else 0 end), sum(case when i.archived = true then 1 else 0 end),"
+			+ " coalesce(sum(i.amountInvoice), 0), coalesce(sum(case when " + OPEN + " then i.amountInvoice else 0 end), 0))"
+			+ " FROM Operator o left join o.invoices i";
+
+	@Query(WORKLOAD + " group by o.idOperateur, o.fname, o.lname order by o.idOperateur")
+	List<OperatorWorkload> retrieveWorkloads();
+
+	@Query(WORKLOAD + " where o.idOperateur = :idOperateur group by o.idOperateur, o.fname, o.lname")
+	OperatorWorkload retrieveWorkload(@Param("idOperateur") Long idOperateur);
+
+	// fewest open invoices first, then smallest open amount
+	@Query(WORKLOAD + " group by o.idOperateur, o.fname, o.lname"
+			+ " order by sum(case when " + OPEN + " then 1 else 0 end),"
+			+ " coalesce(sum(case when " + OPEN + " then i.amountInvoice else 0 end), 0), o.idOperateur")
+	List<OperatorWorkload> retrieveLeastLoaded(Pageable pageable);
+
+	@Query("SELECT o.idOperateur FROM Operator o where o.idOperateur in :ids")
+	List<Long> retrieveExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,52 @@
+package tn.esprit.devops_project.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.entities.Product;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Inserts products as one JDBC batch per call and reads the generated identity ids back,
+ * on the connection of the surrounding Spring transaction.
+ */
+@Repository
+@AllArgsConstructor
+public class ProductImportRepository {
+
+    static final String INSERT_PRODUCT = "insert into product (title, price, quantity, category, stock_id_stock)"
+            + " values (?, ?, ?, ?, ?)";
+
+    final JdbcTemplate jdbcTemplate;
+
+    // sets the generated id on each product
+    public void insertProducts(List<Product> products) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Product product : products) {
+                    ps.setString(1, product.getTitle());
+                    ps.setFloat(2, product.getPrice());
+                    ps.setInt(3, product.getQuantity());
+                    ps.setString(4, product.getCategory().name());
+                    ps.setLong(5, product.getStock().getIdStock());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Product product : products) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated key for imported product");
+                        }
+                        product.setIdProduct(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
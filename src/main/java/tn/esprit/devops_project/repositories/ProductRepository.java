@@ -1,13 +1,60 @@
 package tn.esprit.devops_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.devops_project.dto.CategoryValuation;
+import tn.esprit.devops_project.dto.ProductSearchRow;
+import tn.esprit.devops_project.dto.ProductStockLevel;
 import tn.esprit.devops_project.entities.Product;
 import tn.esprit.devops_project.entities.ProductCategory;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategory(ProductCategory category);
-    List<Product> findByStockIdStock(Long idStock);
+    // filters on the foreign key column: the derived query left joined stock and filtered on the joined id,
+    // which H2 could only answer by reading every product
+    @Query("SELECT p FROM Product p where p.stock.idStock = :idStock")
+    List<Product> findByStockIdStock(@Param("idStock") Long idStock);
+
+    String CATEGORY_VALUATION = "SELECT new tn.esprit.devops_project.dto.CategoryValuation(p.category, count(p),"
+            + " coalesce(sum(p.quantity), 0), coalesce(sum(p.price * p.quantity), 0)) FROM Product p";
+
+    @Query(CATEGORY_VALUATION + " group by p.category")
+    List<CategoryValuation> retrieveCategoryValuations();
+
+    @Query(CATEGORY_VALUATION + " where p.stock.idStock = :idStock group by p.category")
+    List<CategoryValuation> retrieveCategoryValuations(@Param("idStock") Long idStock);
+
+    // single conditional statement: concurrent reservations can never take the quantity below zero
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - :quantity where p.idProduct = :id and p.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity + :quantity where p.idProduct = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT p.idProduct as idProduct, p.title as title, p.category as category, s.idStock as stockId,"
+            + " p.price as price FROM Product p left join p.stock s")
+    List<ProductSearchRow> retrieveSearchRows();
+
+    String STOCK_LEVEL = "SELECT new tn.esprit.devops_project.dto.ProductStockLevel(p.idProduct, p.title, p.category, p.quantity)"
+            + " FROM Product p";
+
+    @Query(STOCK_LEVEL + " where p.idProduct in :ids")
+    List<ProductStockLevel> retrieveStockLevels(@Param("ids") Collection<Long> ids);
+
+    @Query(STOCK_LEVEL + " where p.category = :category")
+    List<ProductStockLevel> retrieveStockLevelsByCategory(@Param("category") ProductCategory category);
+
+    @Query(STOCK_LEVEL + " where p.quantity <= :quantity")
+    List<ProductStockLevel> retrieveStockLevelsAtMost(@Param("quantity") int quantity);
+
+    @Query("SELECT p.idProduct FROM Product p where p.idProduct in :ids")
+    List<Long> retrieveExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,16 @@
+package tn.esprit.devops_project.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.devops_project.entities.ProductReservation;
+import tn.esprit.devops_project.entities.ReservationStatus;
+
+public interface ProductReservationRepository extends JpaRepository<ProductReservation, Long> {
+
+    // compare-and-set on the status so a reservation is committed or released only once
+    @Modifying
+    @Query("update ProductReservation r set r.status = :to where r.idReservation = :id and r.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+}
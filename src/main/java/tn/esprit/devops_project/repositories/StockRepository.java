@@ -1,8 +1,22 @@
 package tn.esprit.devops_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.esprit.devops_project.dto.StockValuation;
 import tn.esprit.devops_project.entities.Stock;
 
+import java.util.List;
 
-public interface StockRepository extends JpaRepository<Stock, Long> {}
 
+public interface StockRepository extends JpaRepository<Stock, Long> {
+
+    String STOCK_VALUATION = "SELECT new tn.esprit.devops_project.dto.StockValuation(s.idStock, s.title, count(p),"
+            + " coalesce(sum(p.quantity), 0), coalesce(sum(p.price * p.quantity), 0)) FROM Stock s left join s.products p";
+
+    @Query(STOCK_VALUATION + " group by s.idStock, s.title order by s.idStock")
+    List<StockValuation> retrieveStockValuations();
+
+    @Query(STOCK_VALUATION + " where s.idStock = :idStock group by s.idStock, s.title")
+    StockValuation retrieveStockValuation(@Param("idStock") Long idStock);
+}
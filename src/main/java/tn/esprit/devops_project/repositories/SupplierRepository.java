@@ -1,9 +1,26 @@
 package tn.esprit.devops_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.esprit.devops_project.dto.SupplierCode;
 import tn.esprit.devops_project.entities.Supplier;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
+	Optional<Supplier> findByCode(String code);
+
+	List<Supplier> findByCodeIn(Collection<String> codes);
+
+	@Query("SELECT s.code as code, s.idSupplier as idSupplier FROM Supplier s where s.code is not null")
+	List<SupplierCode> retrieveCodes();
+
+	@Query("SELECT s.idSupplier FROM Supplier s where s.idSupplier in :ids")
+	List<Long> retrieveExistingIds(@Param("ids") Collection<Long> ids);
+
 }
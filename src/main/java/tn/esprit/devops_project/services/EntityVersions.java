@@ -0,0 +1,78 @@
+package tn.esprit.devops_project.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter per entity type, bumped by the services on every write and used as the ETag of the
+ * read endpoints. Inside a transaction the bump waits for the commit: a reader never tags data that
+ * may still roll back or is not visible yet with the new version. The ETag carries the start time of
+ * this instance so that counters restarting from zero never match a tag handed out before.
+ * Tags are weak: the same version is served as JSON, Smile or CBOR, gzipped or not, and Tomcat
+ * refuses to compress responses carrying a strong ETag.
+ * <p>
+ * The counters only see the writes of this instance and are answered without reading the data, so they
+ * are only correct for a single instance reading its own primary: deployments running several instances
+ * must set {@code conditional-get.enabled=false}, and tagging is off whenever read replicas are enabled
+ * since a replica may still serve data older than the version. {@link #etag} then returns null, which
+ * {@code WebRequest.checkNotModified} treats as always modified.
+ */
+@Service
+@Slf4j
+public class EntityVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public EntityVersions(@Value("${conditional-get.enabled:true}") boolean conditionalGets,
+                          @Value("${read-replica.enabled:false}") boolean readReplicas) {
+        this.enabled = conditionalGets && !readReplicas;
+        if (conditionalGets && readReplicas) {
+            log.info("Conditional GETs disabled, entity versions cannot follow what the read replicas serve");
+        }
+    }
+
+    public void changed(Class<?> type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter(type).incrementAndGet();
+                }
+            });
+        } else {
+            counter(type).incrementAndGet();
+        }
+    }
+
+    public long version(Class<?> type) {
+        return counter(type).get();
+    }
+
+    /**
+     * ETag of a response built from the given entity types, to be read before the data itself,
+     * or null when conditional GETs are disabled.
+     */
+    public String etag(Class<?>... types) {
+        if (!enabled) {
+            return null;
+        }
+        StringBuilder etag = new StringBuilder("W/\"").append(epoch);
+        for (Class<?> type : types) {
+            etag.append('-').append(type.getSimpleName()).append('.').append(version(type));
+        }
+        return etag.append('"').toString();
+    }
+
+    private AtomicLong counter(Class<?> type) {
+        return versions.computeIfAbsent(type, key -> new AtomicLong());
+    }
+}
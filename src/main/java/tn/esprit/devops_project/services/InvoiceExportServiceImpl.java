@@ -0,0 +1,118 @@
+package tn.esprit.devops_project.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.devops_project.dto.ExportFormat;
+import tn.esprit.devops_project.dto.InvoiceExportRow;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.services.Iservices.IInvoiceExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes invoices straight from a forward-only database cursor to the response, so an export
+ * of any size holds a single fetch window in memory and the first bytes leave immediately.
+ */
+@Service
+@AllArgsConstructor
+public class InvoiceExportServiceImpl implements IInvoiceExportService {
+
+	static final String CSV_HEADER = "idInvoice,dateCreationInvoice,dateLastModificationInvoice,amountInvoice,"
+			+ "amountDiscount,archived,supplierId";
+
+	final InvoiceRepository invoiceRepository;
+	final ObjectMapper objectMapper;
+	final MappingJackson2SmileHttpMessageConverter smileConverter;
+	final MappingJackson2CborHttpMessageConverter cborConverter;
+
+	// the cursor only lives as long as the transaction around it
+	@Override
+	@Transactional(readOnly = true)
+	public long exportInvoices(Date startDate, Date endDate, ExportFormat format, Writer writer) throws IOException {
+		if (format.isBinary()) {
+			throw new IllegalArgumentException(format + " is a binary format");
+		}
+		if (format == ExportFormat.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+		long count = forEachRow(startDate, endDate, row -> {
+			if (format == ExportFormat.CSV) {
+				writeCsv(row, writer);
+			} else {
+				writer.write(objectMapper.writeValueAsString(row));
+			}
+			writer.write('\n');
+		});
+		writer.flush();
+		return count;
+	}
+
+	/**
+	 * Text formats are written as UTF-8, binary ones as a single array streamed row by row.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public long exportInvoices(Date startDate, Date endDate, ExportFormat format, OutputStream output) throws IOException {
+		if (!format.isBinary()) {
+			return exportInvoices(startDate, endDate, format, new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+		}
+		ObjectMapper binaryMapper = format == ExportFormat.SMILE ? smileConverter.getObjectMapper() : cborConverter.getObjectMapper();
+		JsonGenerator generator = binaryMapper.getFactory().createGenerator(output);
+		generator.writeStartArray();
+		long count = forEachRow(startDate, endDate, generator::writeObject);
+		generator.writeEndArray();
+		generator.flush();
+		return count;
+	}
+
+	private long forEachRow(Date startDate, Date endDate, RowWriter rowWriter) throws IOException {
+		long count = 0;
+		try (Stream<InvoiceExportRow> rows = invoiceRepository.streamInvoicesBetweenDates(startDate, endDate)) {
+			Iterator<InvoiceExportRow> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				rowWriter.write(iterator.next());
+				count++;
+			}
+		}
+		return count;
+	}
+
+	static void writeCsv(InvoiceExportRow row, Writer writer) throws IOException {
+		writer.write(String.valueOf(row.getIdInvoice()));
+		writer.write(',');
+		writer.write(formatDate(row.getDateCreationInvoice()));
+		writer.write(',');
+		writer.write(formatDate(row.getDateLastModificationInvoice()));
+		writer.write(',');
+		writer.write(Float.toString(row.getAmountInvoice()));
+		writer.write(',');
+		writer.write(Float.toString(row.getAmountDiscount()));
+		writer.write(',');
+		writer.write(row.getArchived() == null ? "" : row.getArchived().toString());
+		writer.write(',');
+		writer.write(row.getSupplierId() == null ? "" : row.getSupplierId().toString());
+	}
+
+	private static String formatDate(Date date) {
+		return date == null ? "" : InvoiceRollupService.toDay(date).toString();
+	}
+
+	private interface RowWriter {
+		void write(InvoiceExportRow row) throws IOException;
+	}
+
+}
@@ -0,0 +1,210 @@
+package tn.esprit.devops_project.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.devops_project.dto.ImportReport;
+import tn.esprit.devops_project.dto.InvoiceImportRecord;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDetail;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceImportRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.Iservices.IInvoiceImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Streams an NDJSON body into the invoice tables. Lines are parsed one at a time and written
+ * every {@code invoice.import.batch-size} records in their own transaction, so memory is bounded
+ * by one batch and the request body is only read as fast as the database accepts rows.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class InvoiceImportServiceImpl implements IInvoiceImportService {
+
+	final ObjectMapper objectMapper;
+	final InvoiceImportRepository invoiceImportRepository;
+	final SupplierRepository supplierRepository;
+	final ProductRepository productRepository;
+	final InvoiceRollupService invoiceRollupService;
+	final TransactionTemplate transactionTemplate;
+
+	@Value("${invoice.import.batch-size:500}")
+	int batchSize;
+
+	@Override
+	public ImportReport importInvoices(InputStream ndjson) throws IOException {
+		ImportReport report = new ImportReport();
+		List<InvoiceImportRecord> batch = new ArrayList<>(batchSize);
+		List<Long> batchLines = new ArrayList<>(batchSize);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+			long lineNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank()) {
+					continue;
+				}
+				try {
+					batch.add(objectMapper.readValue(line, InvoiceImportRecord.class));
+					batchLines.add(lineNumber);
+				} catch (JsonProcessingException e) {
+					report.reject(lineNumber, "Malformed record: " + e.getOriginalMessage());
+				} catch (IllegalArgumentException | IllegalStateException e) {
+					report.reject(lineNumber, "Malformed record: ", e);
+				}
+				if (batch.size() == batchSize) {
+					writeBatch(batch, batchLines, report);
+				}
+			}
+		}
+		writeBatch(batch, batchLines, report);
+		return report;
+	}
+
+	private void writeBatch(List<InvoiceImportRecord> batch, List<Long> batchLines, ImportReport report) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<Invoice> invoices = new ArrayList<>();
+		List<InvoiceImportRecord> valid = new ArrayList<>();
+		List<Long> validLines = new ArrayList<>();
+		// a failure before validation completes loses the whole batch, afterwards only its valid lines
+		List<Long> pending = batchLines;
+		try {
+			validate(batch, batchLines, report, invoices, valid, validLines);
+			pending = validLines;
+			if (!invoices.isEmpty()) {
+				transactionTemplate.executeWithoutResult(status -> insert(invoices, valid));
+				report.accept(invoices.size());
+			}
+		} catch (RuntimeException e) {
+			// earlier batches are committed, so the import goes on and the report says what was lost
+			log.warn("Invoice import batch starting at line {} failed", batchLines.get(0), e);
+			for (Long lineNumber : pending) {
+				report.reject(lineNumber, "Batch rolled back: ", NestedExceptionUtils.getMostSpecificCause(e));
+			}
+		}
+		batch.clear();
+		batchLines.clear();
+	}
+
+	// resolves the referenced suppliers and products with one query each for the whole batch
+	private void validate(List<InvoiceImportRecord> batch, List<Long> batchLines, ImportReport report,
+						  List<Invoice> invoices, List<InvoiceImportRecord> valid, List<Long> validLines) {
+		Set<Long> supplierIds = new HashSet<>();
+		Set<Long> productIds = new HashSet<>();
+		for (InvoiceImportRecord record : batch) {
+			if (record.getSupplierId() != null) {
+				supplierIds.add(record.getSupplierId());
+			}
+			if (record.getDetails() != null) {
+				record.getDetails().stream().filter(Objects::nonNull).forEach(detail -> productIds.add(detail.getProductId()));
+			}
+		}
+		productIds.remove(null);
+		Set<Long> knownSuppliers = supplierIds.isEmpty() ? Set.of() : new HashSet<>(supplierRepository.retrieveExistingIds(supplierIds));
+		Set<Long> knownProducts = productIds.isEmpty() ? Set.of() : new HashSet<>(productRepository.retrieveExistingIds(productIds));
+
+		Date now = new Date();
+		for (int i = 0; i < batch.size(); i++) {
+			InvoiceImportRecord record = batch.get(i);
+			Invoice invoice;
+			try {
+				String error = validate(record, knownSuppliers, knownProducts);
+				if (error != null) {
+					report.reject(batchLines.get(i), error);
+					continue;
+				}
+				invoice = toInvoice(record, now);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				report.reject(batchLines.get(i), "Invalid record: ", e);
+				continue;
+			}
+			invoices.add(invoice);
+			valid.add(record);
+			validLines.add(batchLines.get(i));
+		}
+	}
+
+	private void insert(List<Invoice> invoices, List<InvoiceImportRecord> records) {
+		invoiceImportRepository.insertInvoices(invoices);
+		List<InvoiceDetail> details = new ArrayList<>();
+		for (int i = 0; i < invoices.size(); i++) {
+			for (InvoiceImportRecord.Line line : records.get(i).getDetails()) {
+				Product product = new Product();
+				product.setIdProduct(line.getProductId());
+				details.add(new InvoiceDetail(null, line.getQuantity(), line.getPrice(), product, invoices.get(i)));
+			}
+		}
+		invoiceImportRepository.insertInvoiceDetails(details);
+		invoiceRollupService.invoicesAdded(invoices);
+	}
+
+	static String validate(InvoiceImportRecord record, Set<Long> knownSuppliers, Set<Long> knownProducts) {
+		if (record.getSupplierId() != null && !knownSuppliers.contains(record.getSupplierId())) {
+			return "Unknown supplier " + record.getSupplierId();
+		}
+		if (record.getDetails() == null || record.getDetails().isEmpty()) {
+			return "Invoice has no detail lines";
+		}
+		for (InvoiceImportRecord.Line line : record.getDetails()) {
+			if (line == null) {
+				return "Empty detail line";
+			}
+			if (line.getProductId() == null || !knownProducts.contains(line.getProductId())) {
+				return "Unknown product " + line.getProductId();
+			}
+			if (line.getQuantity() <= 0 || line.getPrice() < 0) {
+				return "Invalid quantity or price for product " + line.getProductId();
+			}
+		}
+		if ((record.getAmountInvoice() != null && record.getAmountInvoice() < 0) || record.getAmountDiscount() < 0) {
+			return "Negative amount";
+		}
+		return null;
+	}
+
+	static Invoice toInvoice(InvoiceImportRecord record, Date now) {
+		Invoice invoice = new Invoice();
+		float amount = 0;
+		if (record.getAmountInvoice() != null) {
+			amount = record.getAmountInvoice();
+		} else {
+			for (InvoiceImportRecord.Line line : record.getDetails()) {
+				amount += line.getQuantity() * line.getPrice();
+			}
+		}
+		invoice.setAmountInvoice(amount);
+		invoice.setAmountDiscount(record.getAmountDiscount());
+		invoice.setDateCreationInvoice(record.getDateCreationInvoice() == null ? now : record.getDateCreationInvoice());
+		invoice.setDateLastModificationInvoice(now);
+		invoice.setArchived(false);
+		if (record.getSupplierId() != null) {
+			Supplier supplier = new Supplier();
+			supplier.setIdSupplier(record.getSupplierId());
+			invoice.setSupplier(supplier);
+		}
+		return invoice;
+	}
+
+}
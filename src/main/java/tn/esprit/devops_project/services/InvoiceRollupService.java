@@ -0,0 +1,204 @@
+package tn.esprit.devops_project.services;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.devops_project.dto.DailyInvoiceAmount;
+import tn.esprit.devops_project.dto.InvoiceAmountRow;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDailyTotal;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalUpsertRepository;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the per day / per supplier invoice totals so range totals read O(days) rows
+ * instead of scanning every invoice. Every write path that creates, archives or changes
+ * the amount of an invoice must go through {@link #invoiceAdded} / {@link #invoiceRemoved}.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class InvoiceRollupService {
+
+	public static final long NO_SUPPLIER = 0L;
+
+	final InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+	final InvoiceDailyTotalUpsertRepository invoiceDailyTotalUpsertRepository;
+	final InvoiceRepository invoiceRepository;
+
+	@Transactional
+	public void invoiceAdded(Invoice invoice) {
+		if (isCounted(invoice)) {
+			applyDelta(invoice.getDateCreationInvoice(), supplierId(invoice), toCents(invoice.getAmountInvoice()), 1);
+		}
+	}
+
+	@Transactional
+	public void invoiceRemoved(Invoice invoice) {
+		if (isCounted(invoice)) {
+			applyDelta(invoice.getDateCreationInvoice(), supplierId(invoice), -toCents(invoice.getAmountInvoice()), -1);
+		}
+	}
+
+	/**
+	 * Adds a batch of new invoices, issuing one update per distinct day and supplier.
+	 */
+	@Transactional
+	public void invoicesAdded(Collection<Invoice> invoices) {
+		Map<String, Bucket> buckets = new HashMap<>();
+		for (Invoice invoice : invoices) {
+			if (isCounted(invoice)) {
+				bucket(buckets, invoice.getDateCreationInvoice(), supplierId(invoice)).add(toCents(invoice.getAmountInvoice()), 1);
+			}
+		}
+		buckets.values().forEach(bucket -> applyDelta(bucket.day, bucket.supplierId, bucket.cents, bucket.count));
+	}
+
+	/**
+	 * Subtracts a batch of archived invoices, issuing one update per distinct day and supplier.
+	 */
+	@Transactional
+	public void invoicesRemoved(Collection<InvoiceAmountRow> rows) {
+		Map<String, Bucket> buckets = new HashMap<>();
+		for (InvoiceAmountRow row : rows) {
+			if (Boolean.FALSE.equals(row.getArchived()) && row.getDateCreationInvoice() != null) {
+				bucket(buckets, row.getDateCreationInvoice(), row.getSupplierId()).add(-toCents(row.getAmountInvoice()), -1);
+			}
+		}
+		buckets.values().forEach(bucket -> applyDelta(bucket.day, bucket.supplierId, bucket.cents, bucket.count));
+	}
+
+	@Transactional
+	public void applyDelta(Date invoiceDate, Long supplierId, long cents, long count) {
+		invoiceDailyTotalUpsertRepository.addToTotal(toDay(invoiceDate), supplierId == null ? NO_SUPPLIER : supplierId,
+				cents, count);
+	}
+
+	public BigDecimal getTotalAmountBetweenDates(Date startDate, Date endDate) {
+		return fromCents(invoiceDailyTotalRepository.sumCentsBetweenDates(toDay(startDate), toDay(endDate)));
+	}
+
+	public BigDecimal getSupplierTotalAmountBetweenDates(Long idSupplier, Date startDate, Date endDate) {
+		return fromCents(invoiceDailyTotalRepository.sumSupplierCentsBetweenDates(idSupplier, toDay(startDate), toDay(endDate)));
+	}
+
+	/**
+	 * Recomputes the totals from the invoice table and corrects every rollup row that drifted.
+	 * Also backfills the rollups the first time the application starts on an existing database.
+	 * Both tables are read from one repeatable-read snapshot and corrections are applied as deltas,
+	 * so invoices added or archived while it runs are neither lost nor counted twice.
+	 *
+	 * @return the number of corrected rows
+	 */
+	@Transactional(isolation = Isolation.REPEATABLE_READ)
+	@Scheduled(cron = "${invoice.rollup.reconcile-cron:0 30 2 * * *}")
+	public int reconcile() {
+		Map<String, DailyInvoiceAmount> expected = new HashMap<>();
+		for (DailyInvoiceAmount amount : invoiceRepository.retrieveDailyInvoiceAmounts()) {
+			expected.put(key(amount.getInvoiceDate(), amount.getSupplierId()), amount);
+		}
+		int corrected = 0;
+		for (InvoiceDailyTotal total : invoiceDailyTotalRepository.findAll()) {
+			DailyInvoiceAmount amount = expected.remove(key(total.getInvoiceDate(), total.getSupplierId()));
+			long count = amount == null ? 0 : amount.getInvoiceCount();
+			long cents = amount == null ? 0 : toCents(amount.getTotalAmount());
+			// the database sums raw floats while rollups add rounded cents: allow one cent per invoice
+			if (total.getInvoiceCount() != count || Math.abs(total.getTotalCents() - cents) > Math.max(1, count)) {
+				log.warn("Invoice rollup {} for supplier {} drifted: {} invoices / {} cents, expected {} / {}",
+						total.getInvoiceDate(), total.getSupplierId(), total.getInvoiceCount(), total.getTotalCents(), count, cents);
+				applyDelta(total.getInvoiceDate(), total.getSupplierId(), cents - total.getTotalCents(),
+						count - total.getInvoiceCount());
+				corrected++;
+			}
+		}
+		for (DailyInvoiceAmount amount : expected.values()) {
+			applyDelta(amount.getInvoiceDate(), amount.getSupplierId(), toCents(amount.getTotalAmount()), amount.getInvoiceCount());
+			corrected++;
+		}
+		if (corrected > 0) {
+			log.info("Invoice rollup reconciliation corrected {} rows", corrected);
+		}
+		return corrected;
+	}
+
+	@Transactional(isolation = Isolation.REPEATABLE_READ)
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillIfEmpty() {
+		if (invoiceDailyTotalRepository.count() == 0) {
+			reconcile();
+		}
+	}
+
+	private static Bucket bucket(Map<String, Bucket> buckets, Date invoiceDate, Long supplierId) {
+		return buckets.computeIfAbsent(key(invoiceDate, supplierId), key -> new Bucket(invoiceDate, supplierId));
+	}
+
+	static boolean isCounted(Invoice invoice) {
+		return Boolean.FALSE.equals(invoice.getArchived()) && invoice.getDateCreationInvoice() != null;
+	}
+
+	// reads the foreign key without initializing a lazy supplier proxy
+	static Long supplierId(Invoice invoice) {
+		Supplier supplier = invoice.getSupplier();
+		if (supplier == null) {
+			return NO_SUPPLIER;
+		}
+		if (supplier instanceof HibernateProxy) {
+			return (Long) ((HibernateProxy) supplier).getHibernateLazyInitializer().getIdentifier();
+		}
+		return supplier.getIdSupplier();
+	}
+
+	public static long toCents(double amount) {
+		return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue();
+	}
+
+	public static BigDecimal fromCents(long cents) {
+		return BigDecimal.valueOf(cents, 2);
+	}
+
+	// java.sql.Date does not support toInstant(), go through its millis in the JDBC time zone
+	public static Date toDay(Date date) {
+		LocalDate day = new java.sql.Date(date.getTime()).toLocalDate();
+		return java.sql.Date.valueOf(day);
+	}
+
+	private static String key(Date invoiceDate, Long supplierId) {
+		return toDay(invoiceDate) + "/" + Objects.requireNonNullElse(supplierId, NO_SUPPLIER);
+	}
+
+	private static class Bucket {
+		final Date day;
+		final Long supplierId;
+		long cents;
+		long count;
+
+		Bucket(Date day, Long supplierId) {
+			this.day = day;
+			this.supplierId = supplierId;
+		}
+
+		void add(long cents, long count) {
+			this.cents += cents;
+			this.count += count;
+		}
+	}
+
+}
@@ -2,57 +2,195 @@ package tn.esprit.devops_project.services;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.devops_project.dto.InvoiceAmountRow;
+import tn.esprit.devops_project.dto.InvoicePage;
+import tn.esprit.devops_project.dto.OperatorAssignment;
+import tn.esprit.devops_project.dto.OperatorWorkload;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
 import tn.esprit.devops_project.entities.Invoice;
 import tn.esprit.devops_project.entities.Operator;
 import tn.esprit.devops_project.entities.Supplier;
 import tn.esprit.devops_project.repositories.InvoiceDetailRepository;
 import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.OperatorInvoiceRepository;
 import tn.esprit.devops_project.repositories.OperatorRepository;
 import tn.esprit.devops_project.repositories.SupplierRepository;
 import tn.esprit.devops_project.services.Iservices.IInvoiceService;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 public class InvoiceServiceImpl implements IInvoiceService {
 
+	public static final int MAX_PAGE_SIZE = 500;
+	static final int ARCHIVE_CHUNK_SIZE = 1000;
+
 	final InvoiceRepository invoiceRepository;
 	final OperatorRepository operatorRepository;
 	final InvoiceDetailRepository invoiceDetailRepository;
 	final SupplierRepository supplierRepository;
+	final InvoiceRollupService invoiceRollupService;
+	final TransactionTemplate transactionTemplate;
+	final OperatorInvoiceRepository operatorInvoiceRepository;
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<Invoice> retrieveAllInvoices() {
 		return invoiceRepository.findAll();
 	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public InvoicePage retrieveInvoicesPage(String cursor, int size) {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		Long afterId = cursor == null || cursor.isEmpty() ? 0L : decodeCursor(cursor);
+		// one extra row tells us whether a following page exists without a count query
+		List<Long> ids = invoiceRepository.retrieveInvoiceIdsAfter(afterId, PageRequest.of(0, size + 1));
+		String nextCursor = null;
+		if (ids.size() > size) {
+			ids = ids.subList(0, size);
+			nextCursor = encodeCursor(ids.get(size - 1));
+		}
+		List<Invoice> invoices = ids.isEmpty() ? new ArrayList<>() : invoiceRepository.retrieveInvoicesWithDetails(ids);
+		return new InvoicePage(invoices, nextCursor);
+	}
 	@Override
+	@Transactional
 	public void cancelInvoice(Long invoiceId) {
-		// method 01
-		Invoice invoice = invoiceRepository.findById(invoiceId).orElseThrow(() -> new NullPointerException("Invoice not found"));
-		invoice.setArchived(true);
-		invoiceRepository.save(invoice);
-		//method 02 (Avec JPQL)
-		invoiceRepository.updateInvoice(invoiceId);
+		// locked like the bulk archive, so a concurrent cancel or archive cannot subtract the invoice twice
+		List<InvoiceAmountRow> rows = invoiceRepository.retrieveOpenInvoiceRows(List.of(invoiceId));
+		if (rows.isEmpty() && !invoiceRepository.existsById(invoiceId)) {
+			throw new NullPointerException("Invoice not found");
+		}
+		archiveRows(rows);
+	}
+
+	@Override
+	public int archiveInvoices(List<Long> invoiceIds) {
+		int archived = 0;
+		for (int from = 0; from < invoiceIds.size(); from += ARCHIVE_CHUNK_SIZE) {
+			List<Long> chunk = invoiceIds.subList(from, Math.min(from + ARCHIVE_CHUNK_SIZE, invoiceIds.size()));
+			archived += transactionTemplate.execute(status -> archiveRows(invoiceRepository.retrieveOpenInvoiceRows(chunk)));
+		}
+		return archived;
 	}
 
 	@Override
+	public int archiveInvoicesBySupplier(Long idSupplier) {
+		return archiveInChunks(afterId -> invoiceRepository.retrieveOpenInvoiceRowsBySupplier(idSupplier, afterId,
+				PageRequest.of(0, ARCHIVE_CHUNK_SIZE)));
+	}
+
+	@Override
+	public int archiveInvoicesBetweenDates(Date startDate, Date endDate) {
+		return archiveInChunks(afterId -> invoiceRepository.retrieveOpenInvoiceRowsBetweenDates(startDate, endDate, afterId,
+				PageRequest.of(0, ARCHIVE_CHUNK_SIZE)));
+	}
+
+	// walks the matching invoices by id, one transaction per chunk so locks and undo logs stay small
+	private int archiveInChunks(Function<Long, List<InvoiceAmountRow>> nextChunk) {
+		int archived = 0;
+		long afterId = 0L;
+		while (true) {
+			long from = afterId;
+			List<InvoiceAmountRow> rows = new ArrayList<>();
+			archived += transactionTemplate.execute(status -> {
+				rows.addAll(nextChunk.apply(from));
+				return archiveRows(rows);
+			});
+			if (rows.size() < ARCHIVE_CHUNK_SIZE) {
+				return archived;
+			}
+			afterId = rows.get(rows.size() - 1).getIdInvoice();
+		}
+	}
+
+	private int archiveRows(List<InvoiceAmountRow> rows) {
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		List<Long> ids = rows.stream().map(InvoiceAmountRow::getIdInvoice).collect(Collectors.toList());
+		int archived = invoiceRepository.archiveInvoices(ids, new Date());
+		invoiceRollupService.invoicesRemoved(rows);
+		return archived;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public Invoice retrieveInvoice(Long invoiceId) {
 
-		return invoiceRepository.findById(invoiceId).orElseThrow(() -> new NullPointerException("Invoice not found"));
+		return invoiceRepository.retrieveInvoiceWithDetails(invoiceId).orElseThrow(() -> new NullPointerException("Invoice not found"));
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Invoice> getInvoicesBySupplier(Long idSupplier) {
 		Supplier supplier = supplierRepository.findById(idSupplier).orElseThrow(() -> new NullPointerException("Supplier not found"));
 		return new ArrayList<>(supplier.getInvoices());
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public Page<Invoice> getInvoicesBySupplier(Long idSupplier, boolean includeArchived, Date startDate, Date endDate,
+											   Pageable pageable) {
+		Page<Long> ids = invoiceRepository.retrieveSupplierInvoiceIds(idSupplier, archivedStates(includeArchived),
+				lowerBound(startDate), upperBound(endDate), pageable);
+		if (ids.isEmpty()) {
+			return new PageImpl<>(new ArrayList<>(), pageable, ids.getTotalElements());
+		}
+		// the graph comes back ordered by id: restore the requested sort order
+		Map<Long, Invoice> byId = new HashMap<>();
+		invoiceRepository.retrieveInvoicesWithDetails(ids.getContent()).forEach(invoice -> byId.put(invoice.getIdInvoice(), invoice));
+		List<Invoice> invoices = ids.getContent().stream().map(byId::get).collect(Collectors.toList());
+		return new PageImpl<>(invoices, pageable, ids.getTotalElements());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public SupplierInvoiceSummary getSupplierInvoiceSummary(Long idSupplier, boolean includeArchived, Date startDate,
+															Date endDate) {
+		return invoiceRepository.retrieveSupplierInvoiceSummary(idSupplier, archivedStates(includeArchived),
+				lowerBound(startDate), upperBound(endDate));
+	}
+
+	private static List<Boolean> archivedStates(boolean includeArchived) {
+		return includeArchived ? List.of(false, true) : List.of(false);
+	}
+
+	private static Date lowerBound(Date startDate) {
+		return startDate == null ? new Date(0) : startDate;
+	}
+
+	private static Date upperBound(Date endDate) {
+		return endDate == null ? java.sql.Date.valueOf("9999-12-31") : endDate;
+	}
+
+	@Override
+	@Transactional
 	public void assignOperatorToInvoice(Long idOperator, Long idInvoice) {
 		Invoice invoice = invoiceRepository.findById(idInvoice).orElseThrow(() -> new NullPointerException("Invoice not found"));
 		Operator operator = operatorRepository.findById(idOperator).orElseThrow(() -> new NullPointerException("Operator not found"));
@@ -61,9 +199,102 @@ public class InvoiceServiceImpl implements IInvoiceService {
 	}
 
 	@Override
-	public float getTotalAmountInvoiceBetweenDates(Date startDate, Date endDate) {
-		return invoiceRepository.getTotalAmountInvoiceBetweenDates(startDate, endDate);
+	@Transactional
+	public void assignOperatorToInvoices(Long idOperator, List<Long> invoiceIds) {
+		if (!operatorRepository.existsById(idOperator)) {
+			throw new NullPointerException("Operator not found");
+		}
+		checkInvoicesExist(invoiceIds);
+		operatorInvoiceRepository.assign(invoiceIds.stream().distinct()
+				.map(idInvoice -> new OperatorAssignment(idOperator, idInvoice)).collect(Collectors.toList()));
+	}
+
+	@Override
+	@Transactional
+	public void assignOperators(List<OperatorAssignment> assignments) {
+		// the last assignment of an invoice wins, as if the pairs were applied one by one
+		Map<Long, OperatorAssignment> byInvoice = new LinkedHashMap<>();
+		assignments.forEach(assignment -> byInvoice.put(assignment.getIdInvoice(), assignment));
+		checkInvoicesExist(byInvoice.keySet());
+		checkOperatorsExist(byInvoice.values().stream().map(OperatorAssignment::getIdOperator).collect(Collectors.toSet()));
+		operatorInvoiceRepository.assign(new ArrayList<>(byInvoice.values()));
+	}
+
+	/**
+	 * Assigns the invoices to the operator with the fewest open invoices and returns its id.
+	 * Two concurrent calls may pick the same operator; the next call sees both batches.
+	 */
+	@Override
+	@Transactional
+	public Long assignLeastLoadedOperator(List<Long> invoiceIds) {
+		List<OperatorWorkload> leastLoaded = operatorRepository.retrieveLeastLoaded(PageRequest.of(0, 1));
+		if (leastLoaded.isEmpty()) {
+			throw new NullPointerException("Operator not found");
+		}
+		Long idOperator = leastLoaded.get(0).getIdOperateur();
+		checkInvoicesExist(invoiceIds);
+		operatorInvoiceRepository.assign(invoiceIds.stream().distinct()
+				.map(idInvoice -> new OperatorAssignment(idOperator, idInvoice)).collect(Collectors.toList()));
+		return idOperator;
+	}
+
+	// the batch insert would otherwise fail on a foreign key instead of reporting the unknown ids
+	private void checkInvoicesExist(Collection<Long> invoiceIds) {
+		Set<Long> missing = missingIds(invoiceIds, invoiceRepository::retrieveExistingIds);
+		if (!missing.isEmpty()) {
+			throw new NullPointerException("Invoice not found: " + missing);
+		}
+	}
+
+	private void checkOperatorsExist(Collection<Long> operatorIds) {
+		Set<Long> missing = missingIds(operatorIds, operatorRepository::retrieveExistingIds);
+		if (!missing.isEmpty()) {
+			throw new NullPointerException("Operator not found: " + missing);
+		}
+	}
+
+	private static Set<Long> missingIds(Collection<Long> ids, Function<Collection<Long>, List<Long>> existing) {
+		List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		Set<Long> missing = new LinkedHashSet<>(distinct);
+		for (int from = 0; from < distinct.size(); from += ARCHIVE_CHUNK_SIZE) {
+			existing.apply(distinct.subList(from, Math.min(from + ARCHIVE_CHUNK_SIZE, distinct.size()))).forEach(missing::remove);
+		}
+		return missing;
+	}
+
+	@Override
+	@Transactional
+	public void unassignOperator(List<Long> invoiceIds) {
+		operatorInvoiceRepository.unassign(invoiceIds);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal getTotalAmountInvoiceBetweenDates(Date startDate, Date endDate) {
+		return invoiceRollupService.getTotalAmountBetweenDates(startDate, endDate);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal getSupplierTotalAmountInvoiceBetweenDates(Long idSupplier, Date startDate, Date endDate) {
+		return invoiceRollupService.getSupplierTotalAmountBetweenDates(idSupplier, startDate, endDate);
+	}
+
+	public static String encodeCursor(Long idInvoice) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(idInvoice.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static Long decodeCursor(String cursor) {
+		long afterId;
+		try {
+			afterId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+		}
+		if (afterId < 0) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+		return afterId;
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package tn.esprit.devops_project.services.Iservices;
+
+import tn.esprit.devops_project.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Date;
+
+public interface IInvoiceExportService {
+
+	long exportInvoices(Date startDate, Date endDate, ExportFormat format, Writer writer) throws IOException;
+
+	long exportInvoices(Date startDate, Date endDate, ExportFormat format, OutputStream output) throws IOException;
+
+}
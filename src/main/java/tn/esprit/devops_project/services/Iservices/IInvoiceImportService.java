@@ -0,0 +1,12 @@
+package tn.esprit.devops_project.services.Iservices;
+
+import tn.esprit.devops_project.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IInvoiceImportService {
+
+	ImportReport importInvoices(InputStream ndjson) throws IOException;
+
+}
@@ -1,20 +1,48 @@
 package tn.esprit.devops_project.services.Iservices;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import tn.esprit.devops_project.dto.InvoicePage;
+import tn.esprit.devops_project.dto.OperatorAssignment;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
 import tn.esprit.devops_project.entities.Invoice;
 
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 
 public interface IInvoiceService {
 	List<Invoice> retrieveAllInvoices();
 
+	InvoicePage retrieveInvoicesPage(String cursor, int size);
+
 	List<Invoice> getInvoicesBySupplier(Long idSupplier);
 
+	Page<Invoice> getInvoicesBySupplier(Long idSupplier, boolean includeArchived, Date startDate, Date endDate, Pageable pageable);
+
+	SupplierInvoiceSummary getSupplierInvoiceSummary(Long idSupplier, boolean includeArchived, Date startDate, Date endDate);
+
 	void cancelInvoice(Long id);
 
+	int archiveInvoices(List<Long> invoiceIds);
+
+	int archiveInvoicesBySupplier(Long idSupplier);
+
+	int archiveInvoicesBetweenDates(Date startDate, Date endDate);
+
 	Invoice retrieveInvoice(Long id);
 	
 	void assignOperatorToInvoice(Long idOperator, Long idInvoice);
 
-	float getTotalAmountInvoiceBetweenDates(Date startDate, Date endDate);
+	void assignOperatorToInvoices(Long idOperator, List<Long> invoiceIds);
+
+	void assignOperators(List<OperatorAssignment> assignments);
+
+	Long assignLeastLoadedOperator(List<Long> invoiceIds);
+
+	void unassignOperator(List<Long> invoiceIds);
+
+	BigDecimal getTotalAmountInvoiceBetweenDates(Date startDate, Date endDate);
+
+	BigDecimal getSupplierTotalAmountInvoiceBetweenDates(Long idSupplier, Date startDate, Date endDate);
 }
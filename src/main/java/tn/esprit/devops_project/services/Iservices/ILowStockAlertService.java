@@ -0,0 +1,20 @@
+package tn.esprit.devops_project.services.Iservices;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.esprit.devops_project.dto.LowStockAlert;
+import tn.esprit.devops_project.dto.ProductStockLevel;
+import tn.esprit.devops_project.entities.ProductCategory;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ILowStockAlertService {
+
+    List<LowStockAlert> retrieveActiveAlerts(ProductCategory category);
+    SseEmitter subscribe();
+    void setProductThreshold(Long idProduct, Integer threshold);
+    void setCategoryThreshold(ProductCategory category, Integer threshold);
+    void stockLevelsChanged(Collection<ProductStockLevel> levels);
+    void productRemoved(Long idProduct);
+
+}
@@ -1,5 +1,6 @@
 package tn.esprit.devops_project.services.Iservices;
 
+import tn.esprit.devops_project.dto.OperatorWorkload;
 import tn.esprit.devops_project.entities.Operator;
 
 import java.util.List;
@@ -17,4 +18,10 @@ public interface IOperatorService {
 
 	Operator retrieveOperator(Long id);
 
+	List<OperatorWorkload> retrieveWorkloads();
+
+	OperatorWorkload retrieveWorkload(Long id);
+
+	List<OperatorWorkload> retrieveLeastLoadedOperators(int limit);
+
 }
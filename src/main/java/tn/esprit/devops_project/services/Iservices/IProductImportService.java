@@ -0,0 +1,13 @@
+package tn.esprit.devops_project.services.Iservices;
+
+import tn.esprit.devops_project.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IProductImportService {
+
+    ImportReport importProductsJson(Long idStock, InputStream jsonArray) throws IOException;
+    ImportReport importProductsCsv(Long idStock, InputStream csv) throws IOException;
+
+}
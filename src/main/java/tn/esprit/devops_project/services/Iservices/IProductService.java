@@ -2,6 +2,8 @@ package tn.esprit.devops_project.services.Iservices;
 
 import tn.esprit.devops_project.entities.Product;
 import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.ProductReservation;
+import tn.esprit.devops_project.entities.ReservationLine;
 
 import java.util.List;
 
@@ -13,6 +15,10 @@ public interface IProductService {
     List<Product> retrieveProductByCategory(ProductCategory category);
     void deleteProduct(Long id);
     List<Product> retreiveProductStock(Long id);
+    List<Product> searchProducts(String query, ProductCategory category, Long idStock, Float minPrice, Float maxPrice, int limit);
+    ProductReservation reserveProducts(List<ReservationLine> lines);
+    ProductReservation commitReservation(Long idReservation);
+    ProductReservation releaseReservation(Long idReservation);
 
 
 }
@@ -1,5 +1,7 @@
 package tn.esprit.devops_project.services.Iservices;
 
+import tn.esprit.devops_project.dto.CategoryValuation;
+import tn.esprit.devops_project.dto.StockValuation;
 import tn.esprit.devops_project.entities.Stock;
 
 import java.util.List;
@@ -9,5 +11,9 @@ public interface IStockService {
     Stock addStock(Stock stock);
     Stock retrieveStock(Long id);
     List<Stock> retrieveAllStock();
+    List<StockValuation> retrieveStockValuations();
+    StockValuation retrieveStockValuation(Long id);
+    List<CategoryValuation> retrieveCategoryValuations();
+    List<CategoryValuation> retrieveCategoryValuations(Long idStock);
 
 }
@@ -1,7 +1,10 @@
 package tn.esprit.devops_project.services.Iservices;
 
+import tn.esprit.devops_project.dto.SupplierScorecard;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
 import tn.esprit.devops_project.entities.Supplier;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ISupplierService {
@@ -16,4 +19,12 @@ public interface ISupplierService {
 
 	Supplier retrieveSupplier(Long id);
 
+	Supplier retrieveSupplierByCode(String code);
+
+	List<Supplier> retrieveSuppliersByCodes(Collection<String> codes);
+
+	SupplierScorecardSnapshot retrieveScorecards();
+
+	SupplierScorecard retrieveScorecard(Long id);
+
 }
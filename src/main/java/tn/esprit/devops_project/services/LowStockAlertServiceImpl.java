@@ -0,0 +1,222 @@
+package tn.esprit.devops_project.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.esprit.devops_project.dto.LowStockAlert;
+import tn.esprit.devops_project.dto.ProductStockLevel;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.services.Iservices.ILowStockAlertService;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Raises an alert when a product falls to or below its threshold and clears it when the product is
+ * restocked. Only the products whose quantity changed are evaluated: the product write paths report
+ * their new levels through {@link #stockLevelsChanged}, after their transaction commits.
+ * Events are delivered to the subscribers from a single publishing thread with a bounded queue,
+ * so a slow client never holds up the thread that committed the change.
+ * A product keeps a single active alert however many times it changes while low.
+ * Thresholds are held in memory: per product, else per category, else {@code product.alert.default-threshold}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LowStockAlertServiceImpl implements ILowStockAlertService {
+
+    static final String RAISED = "low-stock";
+    static final String CLEARED = "restocked";
+    static final int PUBLISH_QUEUE_CAPACITY = 1000;
+
+    final ProductRepository productRepository;
+
+    @Value("${product.alert.default-threshold:5}")
+    int defaultThreshold;
+
+    @Value("${product.alert.stream-timeout:30m}")
+    Duration streamTimeout;
+
+    private final Map<Long, Integer> productThresholds = new ConcurrentHashMap<>();
+    private final Map<ProductCategory, Integer> categoryThresholds = new ConcurrentHashMap<>();
+    private final Map<Long, LowStockAlert> activeAlerts = new ConcurrentHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // one thread keeps the events in order and off the committing thread; a full queue drops the event
+    private final ExecutorService publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(PUBLISH_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "low-stock-alerts");
+                thread.setDaemon(true);
+                return thread;
+            }, (task, executor) -> log.warn("Low-stock event dropped, {} events are waiting for the subscribers",
+                    executor.getQueue().size()));
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scanOnStartup() {
+        int highest = categoryThresholds.values().stream().reduce(defaultThreshold, Math::max);
+        evaluate(productRepository.retrieveStockLevelsAtMost(highest));
+        log.info("Low-stock alerts initialized with {} active alerts", activeAlerts.size());
+    }
+
+    @Override
+    public List<LowStockAlert> retrieveActiveAlerts(ProductCategory category) {
+        return activeAlerts.values().stream()
+                .filter(alert -> category == null || category == alert.getCategory())
+                .sorted(Comparator.comparing(LowStockAlert::getRaisedAt))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Opens an event stream that starts with the active alerts, then receives
+     * {@code low-stock} and {@code restocked} events as they happen.
+     */
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        for (LowStockAlert alert : retrieveActiveAlerts(null)) {
+            send(emitter, RAISED, alert);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void setProductThreshold(Long idProduct, Integer threshold) {
+        update(productThresholds, idProduct, threshold);
+        evaluate(productRepository.retrieveStockLevels(List.of(idProduct)));
+    }
+
+    @Override
+    public void setCategoryThreshold(ProductCategory category, Integer threshold) {
+        update(categoryThresholds, category, threshold);
+        evaluate(productRepository.retrieveStockLevelsByCategory(category));
+    }
+
+    /**
+     * Evaluates the new levels once the surrounding transaction commits, or immediately outside one,
+     * so a rolled back write never raises an alert.
+     */
+    @Override
+    public void stockLevelsChanged(Collection<ProductStockLevel> levels) {
+        List<ProductStockLevel> copy = new ArrayList<>(levels);
+        afterCommit(() -> evaluate(copy));
+    }
+
+    /**
+     * Forgets the product's threshold and clears its alert once the deletion commits,
+     * or immediately outside a transaction.
+     */
+    @Override
+    public void productRemoved(Long idProduct) {
+        afterCommit(() -> {
+            productThresholds.remove(idProduct);
+            LowStockAlert cleared = activeAlerts.remove(idProduct);
+            if (cleared != null) {
+                publish(CLEARED, cleared);
+            }
+        });
+    }
+
+    void evaluate(Collection<ProductStockLevel> levels) {
+        for (ProductStockLevel level : levels) {
+            int threshold = thresholdOf(level);
+            if (level.getQuantity() <= threshold) {
+                LowStockAlert alert = new LowStockAlert(level.getIdProduct(), level.getTitle(), level.getCategory(),
+                        level.getQuantity(), threshold, new Date());
+                LowStockAlert previous = activeAlerts.putIfAbsent(level.getIdProduct(), alert);
+                if (previous == null) {
+                    publish(RAISED, alert);
+                } else {
+                    // already alerted: refresh the figures without notifying again
+                    previous.setQuantity(level.getQuantity());
+                    previous.setThreshold(threshold);
+                }
+            } else {
+                LowStockAlert cleared = activeAlerts.remove(level.getIdProduct());
+                if (cleared != null) {
+                    cleared.setQuantity(level.getQuantity());
+                    publish(CLEARED, cleared);
+                }
+            }
+        }
+    }
+
+    int thresholdOf(ProductStockLevel level) {
+        Integer threshold = productThresholds.get(level.getIdProduct());
+        if (threshold == null && level.getCategory() != null) {
+            threshold = categoryThresholds.get(level.getCategory());
+        }
+        return threshold == null ? defaultThreshold : threshold;
+    }
+
+    private void publish(String event, LowStockAlert alert) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        publisher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, event, alert);
+            }
+        });
+    }
+
+    private void send(SseEmitter emitter, String event, LowStockAlert alert) {
+        try {
+            emitter.send(SseEmitter.event().name(event).id(String.valueOf(alert.getIdProduct())).data(alert));
+        } catch (IOException | IllegalStateException e) {
+            // client went away, the emitter callbacks would not fire for a dead connection
+            emitters.remove(emitter);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static <K> void update(Map<K, Integer> thresholds, K key, Integer threshold) {
+        if (threshold == null) {
+            thresholds.remove(key);
+        } else if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        } else {
+            thresholds.put(key, threshold);
+        }
+    }
+}
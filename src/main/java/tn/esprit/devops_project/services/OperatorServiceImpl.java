@@ -4,7 +4,10 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.devops_project.dto.OperatorWorkload;
 import tn.esprit.devops_project.entities.Operator;
 import tn.esprit.devops_project.repositories.OperatorRepository;
 import tn.esprit.devops_project.services.Iservices.IOperatorService;
@@ -16,31 +19,69 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class OperatorServiceImpl implements IOperatorService {
 
+	static final int MAX_LEAST_LOADED = 100;
+
 	OperatorRepository operatorRepository;
+	EntityVersions entityVersions;
+
 	@Override
+	@Transactional(readOnly = true)
 	public List<Operator> retrieveAllOperators() {
 		return (List<Operator>) operatorRepository.findAll();
 	}
 
 	@Override
+	@Transactional
 	public Operator addOperator(Operator operator) {
-		return operatorRepository.save(operator);
+		Operator saved = operatorRepository.save(operator);
+		entityVersions.changed(Operator.class);
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public void deleteOperator(Long id) {
 		operatorRepository.deleteById(id);
-		
+		entityVersions.changed(Operator.class);
 	}
 
 	@Override
+	@Transactional
 	public Operator updateOperator(Operator operator) {
-		return operatorRepository.save(operator);
+		Operator saved = operatorRepository.save(operator);
+		entityVersions.changed(Operator.class);
+		return saved;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Operator retrieveOperator(Long id) {
 		return operatorRepository.findById(id).orElseThrow(() -> new NullPointerException("Operator not found"));
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<OperatorWorkload> retrieveWorkloads() {
+		return operatorRepository.retrieveWorkloads();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public OperatorWorkload retrieveWorkload(Long id) {
+		OperatorWorkload workload = operatorRepository.retrieveWorkload(id);
+		if (workload == null) {
+			throw new NullPointerException("Operator not found");
+		}
+		return workload;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<OperatorWorkload> retrieveLeastLoadedOperators(int limit) {
+		if (limit < 1 || limit > MAX_LEAST_LOADED) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEAST_LOADED);
+		}
+		return operatorRepository.retrieveLeastLoaded(PageRequest.of(0, limit));
+	}
+
 }
@@ -0,0 +1,237 @@
+package tn.esprit.devops_project.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.devops_project.dto.ImportReport;
+import tn.esprit.devops_project.dto.ProductImportRecord;
+import tn.esprit.devops_project.dto.ProductStockLevel;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.ProductImportRepository;
+import tn.esprit.devops_project.repositories.StockRepository;
+import tn.esprit.devops_project.services.Iservices.ILowStockAlertService;
+import tn.esprit.devops_project.services.Iservices.IProductImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a catalog into one stock. The body is parsed as a stream (a JSON array element by element,
+ * or CSV line by line) and valid products are written every {@code product.import.batch-size}
+ * records in their own transaction. Errors are reported by array position (JSON) or line (CSV).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements IProductImportService {
+
+    static final String CSV_HEADER = "title,price,quantity,category";
+
+    final ObjectMapper objectMapper;
+    final StockRepository stockRepository;
+    final ProductImportRepository productImportRepository;
+    final ProductSearchIndex productSearchIndex;
+    final ILowStockAlertService lowStockAlertService;
+    final EntityVersions entityVersions;
+    final TransactionTemplate transactionTemplate;
+
+    @Value("${product.import.batch-size:500}")
+    int batchSize;
+
+    @Override
+    public ImportReport importProductsJson(Long idStock, InputStream jsonArray) throws IOException {
+        Batch batch = new Batch(retrieveStock(idStock));
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonArray)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of products");
+            }
+            long position = 0;
+            while (true) {
+                JsonNode element;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY || token == null) {
+                        break;
+                    }
+                    // reading the element as a tree consumes it whole, so a bad field only loses its own record
+                    element = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // the parser cannot resync after a syntax error, the records read before it are still written
+                    batch.report.reject(position + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+                position++;
+                if (!element.isObject()) {
+                    batch.report.reject(position, "Malformed record: expected an object");
+                    continue;
+                }
+                try {
+                    batch.add(position, objectMapper.treeToValue(element, ProductImportRecord.class));
+                } catch (JsonProcessingException e) {
+                    batch.report.reject(position, "Malformed record: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    batch.report.reject(position, "Malformed record: ", e);
+                }
+            }
+        }
+        batch.flush();
+        return batch.report;
+    }
+
+    @Override
+    public ImportReport importProductsCsv(Long idStock, InputStream csv) throws IOException {
+        Batch batch = new Batch(retrieveStock(idStock));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !CSV_HEADER.equalsIgnoreCase(header.trim())) {
+            throw new IllegalArgumentException("CSV header must be: " + CSV_HEADER);
+        }
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(lineNumber, parseCsv(line));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                batch.report.reject(lineNumber, "Malformed record: ", e);
+            }
+        }
+        batch.flush();
+        return batch.report;
+    }
+
+    private Stock retrieveStock(Long idStock) {
+        return stockRepository.findById(idStock).orElseThrow(() -> new NullPointerException("stock not found"));
+    }
+
+    private void write(List<Product> products, List<Long> lines, ImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> productImportRepository.insertProducts(products));
+            report.accept(products.size());
+            products.forEach(productSearchIndex::index);
+            lowStockAlertService.stockLevelsChanged(products.stream().map(ProductStockLevel::of).collect(Collectors.toList()));
+            entityVersions.changed(Product.class);
+        } catch (DataAccessException e) {
+            log.warn("Product import batch starting at record {} failed", lines.get(0), e);
+            for (Long line : lines) {
+                report.reject(line, "Batch rolled back: ", e.getMostSpecificCause());
+            }
+        }
+    }
+
+    static String validate(ProductImportRecord record) {
+        if (record.getTitle() == null || record.getTitle().isBlank()) {
+            return "Missing title";
+        }
+        if (record.getPrice() == null || record.getPrice() < 0) {
+            return "Missing or negative price";
+        }
+        if (record.getQuantity() == null || record.getQuantity() < 0) {
+            return "Missing or negative quantity";
+        }
+        if (record.getCategory() == null) {
+            return "Missing category";
+        }
+        return null;
+    }
+
+    // title,price,quantity,category; the title may be double-quoted to hold commas
+    static ProductImportRecord parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("expected 4 fields but found " + fields.size());
+        }
+        try {
+            return new ProductImportRecord(fields.get(0).trim(),
+                    fields.get(1).isBlank() ? null : Float.valueOf(fields.get(1).trim()),
+                    fields.get(2).isBlank() ? null : Integer.valueOf(fields.get(2).trim()),
+                    fields.get(3).isBlank() ? null : ProductCategory.valueOf(fields.get(3).trim().toUpperCase(Locale.ROOT)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number in " + fields);
+        }
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private class Batch {
+        final Stock stock;
+        final ImportReport report = new ImportReport();
+        final List<Product> products = new ArrayList<>(batchSize);
+        final List<Long> lines = new ArrayList<>(batchSize);
+
+        Batch(Stock stock) {
+            this.stock = stock;
+        }
+
+        void add(long line, ProductImportRecord record) {
+            String error = validate(record);
+            if (error != null) {
+                report.reject(line, error);
+                return;
+            }
+            products.add(new Product(null, record.getTitle().trim(), record.getPrice(), record.getQuantity(),
+                    record.getCategory(), stock));
+            lines.add(line);
+            if (products.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!products.isEmpty()) {
+                write(new ArrayList<>(products), new ArrayList<>(lines), report);
+                products.clear();
+                lines.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package tn.esprit.devops_project.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.devops_project.dto.ProductSearchRow;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.ProductRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory search over product titles with category, stock and price filters.
+ * Products are numbered with dense document ids so every posting list and filter is a
+ * {@link BitSet} and a query is a handful of bitwise intersections.
+ * Titles are indexed by token (prefix lookups on a sorted map) and by trigram (substring lookups).
+ * The index is rebuilt from the database on startup and kept up to date by the product write paths,
+ * which report their changes as their transactions commit.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    public static final int MAX_RESULTS = 100;
+    private static final int GRAM = 3;
+    private static final BitSet NONE = new BitSet();
+
+    final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // writes made while a rebuild reads the database, keyed by product; a null entry is a removal
+    private Map<Long, Entry> replay;
+
+    /**
+     * Builds a fresh index from the database and swaps it in. Writes made while the rows are read
+     * go to the current index and are replayed onto the new one, so a concurrent update is never lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            replay = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index rebuilt = new Index();
+        boolean loaded = false;
+        try {
+            for (ProductSearchRow row : productRepository.retrieveSearchRows()) {
+                rebuilt.add(new Entry(row.getIdProduct(), row.getTitle(), row.getCategory(), row.getStockId(),
+                        row.getPrice() == null ? 0f : row.getPrice()));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    replay.forEach((productId, entry) -> rebuilt.replace(productId, entry));
+                    index = rebuilt;
+                }
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Product search index built with {} products", rebuilt.docIds.size());
+    }
+
+    /**
+     * Adds the product, or replaces its previous version, once the surrounding transaction commits,
+     * or immediately outside one, so a rolled back write never shows up in the results.
+     */
+    public void index(Product product) {
+        Stock stock = product.getStock();
+        Entry entry = new Entry(product.getIdProduct(), product.getTitle(), product.getCategory(),
+                stock == null ? null : stock.getIdStock(), product.getPrice());
+        afterCommit(() -> apply(entry.productId, entry));
+    }
+
+    /**
+     * Removes the product once the surrounding transaction commits, or immediately outside one.
+     */
+    public void remove(Long productId) {
+        afterCommit(() -> apply(productId, null));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the matching products, best match first. Every word of the query must
+     * match the start of a title word or, from three characters on, any part of the title.
+     * Whole-word matches rank before prefix matches, which rank before substring matches;
+     * shorter titles win ties. Null filters are ignored.
+     */
+    public List<Long> search(String query, ProductCategory category, Long idStock, Float minPrice, Float maxPrice, int limit) {
+        List<String> terms = tokenize(query);
+        lock.readLock().lock();
+        try {
+            Index index = this.index;
+            BitSet candidates = (BitSet) index.live.clone();
+            if (category != null) {
+                candidates.and(index.categories.getOrDefault(category, NONE));
+            }
+            if (idStock != null) {
+                candidates.and(index.stocks.getOrDefault(idStock, NONE));
+            }
+            if (minPrice != null || maxPrice != null) {
+                BitSet inRange = new BitSet();
+                index.prices.subMap(minPrice == null ? Float.NEGATIVE_INFINITY : minPrice, true,
+                        maxPrice == null ? Float.POSITIVE_INFINITY : maxPrice, true).values().forEach(inRange::or);
+                candidates.and(inRange);
+            }
+            for (String term : terms) {
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                candidates.and(index.matching(term, candidates));
+            }
+            List<Entry> hits = new ArrayList<>(candidates.cardinality());
+            candidates.stream().forEach(doc -> hits.add(index.docs.get(doc)));
+            return hits.stream()
+                    .sorted(Comparator.comparingInt((Entry entry) -> -entry.score(terms))
+                            .thenComparingInt(entry -> entry.title.length())
+                            .thenComparing(entry -> entry.productId))
+                    .limit(limit)
+                    .map(entry -> entry.productId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Long productId, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            index.replace(productId, entry);
+            if (replay != null) {
+                replay.put(productId, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static List<String> grams(String text) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * The documents and their postings. Only accessed under the lock, or before it is published by {@link #rebuild}.
+     */
+    private static class Index {
+        final Map<Long, Integer> docIds = new HashMap<>();
+        final List<Entry> docs = new ArrayList<>();
+        final Deque<Integer> freeDocs = new ArrayDeque<>();
+        final BitSet live = new BitSet();
+        final TreeMap<String, BitSet> tokens = new TreeMap<>();
+        final Map<String, BitSet> trigrams = new HashMap<>();
+        final Map<ProductCategory, BitSet> categories = new EnumMap<>(ProductCategory.class);
+        final Map<Long, BitSet> stocks = new HashMap<>();
+        final TreeMap<Float, BitSet> prices = new TreeMap<>();
+
+        BitSet matching(String term, BitSet candidates) {
+            BitSet matches = new BitSet();
+            if (term.length() < GRAM) {
+                tokens.subMap(term, true, term + Character.MAX_VALUE, true).values().forEach(matches::or);
+                return matches;
+            }
+            // every trigram of the term must be in the title, then confirm the candidates really contain it
+            matches.or(candidates);
+            for (String gram : grams(term)) {
+                matches.and(trigrams.getOrDefault(gram, NONE));
+            }
+            for (int doc : matches.stream().filter(doc -> !docs.get(doc).title.contains(term)).toArray()) {
+                matches.clear(doc);
+            }
+            return matches;
+        }
+
+        /**
+         * Replaces the product's document with the entry, or only removes it when the entry is null.
+         */
+        void replace(Long productId, Entry entry) {
+            remove(productId);
+            if (entry != null) {
+                add(entry);
+            }
+        }
+
+        void add(Entry entry) {
+            int doc = freeDocs.isEmpty() ? docs.size() : freeDocs.pop();
+            if (doc == docs.size()) {
+                docs.add(entry);
+            } else {
+                docs.set(doc, entry);
+            }
+            docIds.put(entry.productId, doc);
+            live.set(doc);
+            for (String token : entry.tokens) {
+                tokens.computeIfAbsent(token, key -> new BitSet()).set(doc);
+            }
+            for (String gram : grams(entry.title)) {
+                trigrams.computeIfAbsent(gram, key -> new BitSet()).set(doc);
+            }
+            if (entry.category != null) {
+                categories.computeIfAbsent(entry.category, key -> new BitSet()).set(doc);
+            }
+            if (entry.stockId != null) {
+                stocks.computeIfAbsent(entry.stockId, key -> new BitSet()).set(doc);
+            }
+            prices.computeIfAbsent(entry.price, key -> new BitSet()).set(doc);
+        }
+
+        void remove(Long productId) {
+            Integer doc = docIds.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            Entry entry = docs.get(doc);
+            live.clear(doc);
+            for (String token : entry.tokens) {
+                clear(tokens, token, doc);
+            }
+            for (String gram : grams(entry.title)) {
+                clear(trigrams, gram, doc);
+            }
+            if (entry.category != null) {
+                clear(categories, entry.category, doc);
+            }
+            if (entry.stockId != null) {
+                clear(stocks, entry.stockId, doc);
+            }
+            clear(prices, entry.price, doc);
+            docs.set(doc, null);
+            freeDocs.push(doc);
+        }
+
+        // drops the posting once its last document is gone, so renamed and deleted products leave nothing behind
+        private static <K> void clear(Map<K, BitSet> postings, K key, int doc) {
+            postings.computeIfPresent(key, (k, bits) -> {
+                bits.clear(doc);
+                return bits.isEmpty() ? null : bits;
+            });
+        }
+    }
+
+    private static class Entry {
+        final Long productId;
+        final String title;
+        final List<String> tokens;
+        final ProductCategory category;
+        final Long stockId;
+        final float price;
+
+        Entry(Long productId, String title, ProductCategory category, Long stockId, float price) {
+            this.productId = productId;
+            this.title = normalize(title);
+            this.tokens = tokenize(title);
+            this.category = category;
+            this.stockId = stockId;
+            this.price = price;
+        }
+
+        int score(List<String> terms) {
+            int score = 0;
+            for (String term : terms) {
+                if (tokens.contains(term)) {
+                    score += 3;
+                } else if (tokens.stream().anyMatch(token -> token.startsWith(term))) {
+                    score += 2;
+                } else {
+                    score += 1;
+                }
+            }
+            return score;
+        }
+    }
+}
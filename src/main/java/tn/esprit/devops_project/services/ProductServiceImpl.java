@@ -3,14 +3,28 @@ package tn.esprit.devops_project.services;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.devops_project.dto.ProductStockLevel;
+import tn.esprit.devops_project.services.Iservices.ILowStockAlertService;
 import tn.esprit.devops_project.services.Iservices.IProductService;
 import tn.esprit.devops_project.entities.Product;
 import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.ProductReservation;
+import tn.esprit.devops_project.entities.ReservationLine;
+import tn.esprit.devops_project.entities.ReservationStatus;
 import tn.esprit.devops_project.entities.Stock;
 import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.ProductReservationRepository;
 import tn.esprit.devops_project.repositories.StockRepository;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -19,36 +33,131 @@ public class ProductServiceImpl implements IProductService {
 
    final ProductRepository productRepository;
    final StockRepository stockRepository;
+   final ProductReservationRepository productReservationRepository;
+   final ProductSearchIndex productSearchIndex;
+   final ILowStockAlertService lowStockAlertService;
+   final EntityVersions entityVersions;
 
     @Override
+    @Transactional
     public Product addProduct(Product product, Long idStock) {
         Stock stock = stockRepository.findById(idStock).orElseThrow(() -> new NullPointerException("stock not found"));
         product.setStock(stock);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchIndex.index(saved);
+        lowStockAlertService.stockLevelsChanged(List.of(ProductStockLevel.of(saved)));
+        entityVersions.changed(Product.class);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product retrieveProduct(Long id) {
         return productRepository.findById(id).orElseThrow(() -> new NullPointerException("Product not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> retreiveAllProduct() {
         return productRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> retrieveProductByCategory(ProductCategory category) {
         return productRepository.findByCategory(category);
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productSearchIndex.remove(id);
+        lowStockAlertService.productRemoved(id);
+        entityVersions.changed(Product.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Product> searchProducts(String query, ProductCategory category, Long idStock,
+                                        Float minPrice, Float maxPrice, int limit) {
+        if (limit < 1 || limit > ProductSearchIndex.MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + ProductSearchIndex.MAX_RESULTS);
+        }
+        List<Long> ids = productSearchIndex.search(query, category, idStock, minPrice, maxPrice, limit);
+        // findAllById does not keep the ranking
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getIdProduct, Function.identity()));
+        return ids.stream().map(products::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Product> retreiveProductStock(Long id) {
         return productRepository.findByStockIdStock(id);
     }
+
+    /**
+     * Decrements every product of the reservation or none of them. Lines are merged per product
+     * and applied in product id order so two multi-line reservations cannot deadlock on row locks.
+     */
+    @Override
+    @Transactional
+    public ProductReservation reserveProducts(List<ReservationLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Reservation has no lines");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationLine line : lines) {
+            if (line.getProductId() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Reservation lines need a product and a positive quantity");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        List<ReservationLine> merged = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            // throwing rolls back the decrements already applied for the previous lines
+            if (productRepository.decrementQuantity(productId, quantity) == 0) {
+                throw new IllegalArgumentException("Insufficient stock for product " + productId);
+            }
+            merged.add(new ReservationLine(productId, quantity));
+        });
+        lowStockAlertService.stockLevelsChanged(productRepository.retrieveStockLevels(quantities.keySet()));
+        entityVersions.changed(Product.class);
+        return productReservationRepository.save(new ProductReservation(null, ReservationStatus.RESERVED, new Date(), merged));
+    }
+
+    @Override
+    @Transactional
+    public ProductReservation commitReservation(Long idReservation) {
+        ProductReservation reservation = retrieveReservation(idReservation);
+        if (productReservationRepository.updateStatus(idReservation, ReservationStatus.RESERVED, ReservationStatus.COMMITTED) == 0) {
+            throw new IllegalArgumentException("Reservation " + idReservation + " is not pending");
+        }
+        reservation.setStatus(ReservationStatus.COMMITTED);
+        return reservation;
+    }
+
+    @Override
+    @Transactional
+    public ProductReservation releaseReservation(Long idReservation) {
+        ProductReservation reservation = retrieveReservation(idReservation);
+        if (productReservationRepository.updateStatus(idReservation, ReservationStatus.RESERVED, ReservationStatus.RELEASED) == 0) {
+            throw new IllegalArgumentException("Reservation " + idReservation + " is not pending");
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (ReservationLine line : reservation.getLines()) {
+            productRepository.incrementQuantity(line.getProductId(), line.getQuantity());
+            productIds.add(line.getProductId());
+        }
+        lowStockAlertService.stockLevelsChanged(productRepository.retrieveStockLevels(productIds));
+        entityVersions.changed(Product.class);
+        reservation.setStatus(ReservationStatus.RELEASED);
+        return reservation;
+    }
+
+    private ProductReservation retrieveReservation(Long idReservation) {
+        return productReservationRepository.findById(idReservation)
+                .orElseThrow(() -> new NullPointerException("Reservation not found"));
+    }
 }
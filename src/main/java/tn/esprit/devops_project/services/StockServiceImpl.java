@@ -2,8 +2,12 @@ package tn.esprit.devops_project.services;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tn.esprit.devops_project.services.Iservices.IStockService;
+import tn.esprit.devops_project.dto.CategoryValuation;
+import tn.esprit.devops_project.dto.StockValuation;
 import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.ProductRepository;
 import tn.esprit.devops_project.repositories.StockRepository;
 
 import java.util.List;
@@ -13,22 +17,56 @@ import java.util.List;
 public class StockServiceImpl implements IStockService {
 
    private final StockRepository stockRepository;
+   private final ProductRepository productRepository;
+   private final EntityVersions entityVersions;
 
     @Override
+    @Transactional
     public Stock addStock(Stock stock) {
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        entityVersions.changed(Stock.class);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Stock retrieveStock(Long id) {
         return stockRepository.findById(id).orElseThrow(() -> new NullPointerException("Stock not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Stock> retrieveAllStock() {
         return stockRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockValuation> retrieveStockValuations() {
+        return stockRepository.retrieveStockValuations();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockValuation retrieveStockValuation(Long id) {
+        StockValuation valuation = stockRepository.retrieveStockValuation(id);
+        if (valuation == null) {
+            throw new NullPointerException("Stock not found");
+        }
+        return valuation;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryValuation> retrieveCategoryValuations() {
+        return productRepository.retrieveCategoryValuations();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryValuation> retrieveCategoryValuations(Long idStock) {
+        return productRepository.retrieveCategoryValuations(idStock);
+    }
 
 
 }
@@ -0,0 +1,69 @@
+package tn.esprit.devops_project.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tn.esprit.devops_project.dto.SupplierCode;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory supplier code to id map, so a code lookup is a hash lookup followed by a
+ * (second-level cached) {@code findById}. Loaded on startup and kept coherent by {@link SupplierServiceImpl},
+ * which checks the code of every supplier it finds through the index since other instances write too.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SupplierCodeIndex {
+
+	final SupplierRepository supplierRepository;
+
+	private final Map<String, Long> idsByCode = new ConcurrentHashMap<>();
+	private final Map<Long, String> codesById = new ConcurrentHashMap<>();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		List<SupplierCode> codes = supplierRepository.retrieveCodes();
+		idsByCode.clear();
+		codesById.clear();
+		codes.forEach(code -> put(code.getIdSupplier(), code.getCode()));
+		log.info("Supplier code index loaded with {} codes", codes.size());
+	}
+
+	public Long getId(String code) {
+		return idsByCode.get(code);
+	}
+
+	public synchronized void supplierSaved(Supplier supplier) {
+		supplierRemoved(supplier.getIdSupplier());
+		if (supplier.getCode() != null) {
+			put(supplier.getIdSupplier(), supplier.getCode());
+		}
+	}
+
+	public synchronized void supplierRemoved(Long idSupplier) {
+		String previous = codesById.remove(idSupplier);
+		if (previous != null) {
+			idsByCode.remove(previous, idSupplier);
+		}
+	}
+
+	// the entry no longer matches the database, renamed or deleted by another instance
+	public synchronized void evict(String code, Long idSupplier) {
+		if (idsByCode.remove(code, idSupplier)) {
+			codesById.remove(idSupplier, code);
+		}
+	}
+
+	private void put(Long idSupplier, String code) {
+		idsByCode.put(code, idSupplier);
+		codesById.put(idSupplier, code);
+	}
+}
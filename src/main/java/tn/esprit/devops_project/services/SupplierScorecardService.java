@@ -0,0 +1,201 @@
+package tn.esprit.devops_project.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.esprit.devops_project.dto.InvoiceScoreRow;
+import tn.esprit.devops_project.dto.SupplierScorecard;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Computes the scorecards of every supplier in one pass over the invoice table.
+ * Invoices are read in keyset chunks of projection rows; each chunk is split and aggregated on a
+ * fork-join pool while the next chunk is fetched, and the per-supplier partial results are merged.
+ * The last snapshot is kept in memory and only recomputed every {@code supplier.scorecard.refresh-interval},
+ * so clients cannot trigger a full pass over the invoices.
+ */
+@Service
+@Slf4j
+public class SupplierScorecardService {
+
+	static final int SPLIT_THRESHOLD = 2048;
+
+	final InvoiceRepository invoiceRepository;
+	final SupplierRepository supplierRepository;
+	final ForkJoinPool pool;
+	final int chunkSize;
+	final int trendMonths;
+
+	private final AtomicReference<SupplierScorecardSnapshot> snapshot = new AtomicReference<>();
+
+	public SupplierScorecardService(InvoiceRepository invoiceRepository, SupplierRepository supplierRepository,
+									@Value("${supplier.scorecard.parallelism:0}") int parallelism,
+									@Value("${supplier.scorecard.chunk-size:10000}") int chunkSize,
+									@Value("${supplier.scorecard.trend-months:12}") int trendMonths) {
+		this.invoiceRepository = invoiceRepository;
+		this.supplierRepository = supplierRepository;
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		this.chunkSize = chunkSize;
+		this.trendMonths = trendMonths;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Returns the cached snapshot, computing it on first use.
+	 */
+	public SupplierScorecardSnapshot getSnapshot() {
+		SupplierScorecardSnapshot current = snapshot.get();
+		return current != null ? current : ensureComputed();
+	}
+
+	// callers that raced past the first check wait here for the snapshot instead of computing it again
+	private synchronized SupplierScorecardSnapshot ensureComputed() {
+		SupplierScorecardSnapshot current = snapshot.get();
+		return current != null ? current : refresh();
+	}
+
+	@Scheduled(fixedDelayString = "${supplier.scorecard.refresh-interval:PT10M}",
+			initialDelayString = "${supplier.scorecard.refresh-interval:PT10M}")
+	public synchronized SupplierScorecardSnapshot refresh() {
+		long start = System.currentTimeMillis();
+		YearMonth firstTrendMonth = YearMonth.now().minusMonths(trendMonths - 1L);
+		Map<Long, Accumulator> totals = new HashMap<>();
+		ForkJoinTask<Map<Long, Accumulator>> pending = null;
+		long afterId = 0;
+		List<InvoiceScoreRow> rows;
+		do {
+			rows = invoiceRepository.retrieveScoreRowsAfter(afterId, PageRequest.of(0, chunkSize));
+			// the previous chunk is aggregated while this one was being read
+			if (pending != null) {
+				merge(totals, pending.join());
+			}
+			if (!rows.isEmpty()) {
+				afterId = rows.get(rows.size() - 1).getIdInvoice();
+				pending = pool.submit(new ChunkTask(rows, 0, rows.size(), firstTrendMonth));
+			} else {
+				pending = null;
+			}
+		} while (rows.size() == chunkSize);
+		if (pending != null) {
+			merge(totals, pending.join());
+		}
+
+		List<SupplierScorecard> scorecards = new ArrayList<>();
+		for (Supplier supplier : supplierRepository.findAll()) {
+			Accumulator accumulator = totals.getOrDefault(supplier.getIdSupplier(), new Accumulator());
+			scorecards.add(accumulator.toScorecard(supplier));
+		}
+		scorecards.sort(Comparator.comparing(SupplierScorecard::getIdSupplier));
+		long elapsed = System.currentTimeMillis() - start;
+		SupplierScorecardSnapshot computed = new SupplierScorecardSnapshot(new Date(), elapsed, scorecards);
+		snapshot.set(computed);
+		log.info("Supplier scorecards computed for {} suppliers in {} ms", scorecards.size(), elapsed);
+		return computed;
+	}
+
+	private static void merge(Map<Long, Accumulator> totals, Map<Long, Accumulator> partial) {
+		partial.forEach((supplierId, accumulator) -> totals.merge(supplierId, accumulator, Accumulator::merge));
+	}
+
+	private static class ChunkTask extends RecursiveTask<Map<Long, Accumulator>> {
+		final List<InvoiceScoreRow> rows;
+		final int from;
+		final int to;
+		final YearMonth firstTrendMonth;
+
+		ChunkTask(List<InvoiceScoreRow> rows, int from, int to, YearMonth firstTrendMonth) {
+			this.rows = rows;
+			this.from = from;
+			this.to = to;
+			this.firstTrendMonth = firstTrendMonth;
+		}
+
+		@Override
+		protected Map<Long, Accumulator> compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				ChunkTask left = new ChunkTask(rows, from, middle, firstTrendMonth);
+				left.fork();
+				Map<Long, Accumulator> right = new ChunkTask(rows, middle, to, firstTrendMonth).compute();
+				merge(right, left.join());
+				return right;
+			}
+			Map<Long, Accumulator> totals = new HashMap<>();
+			for (int i = from; i < to; i++) {
+				InvoiceScoreRow row = rows.get(i);
+				// invoices without a supplier have no scorecard
+				if (row.getSupplierId() != null) {
+					totals.computeIfAbsent(row.getSupplierId(), id -> new Accumulator()).add(row, firstTrendMonth);
+				}
+			}
+			return totals;
+		}
+	}
+
+	static class Accumulator {
+		long count;
+		long archived;
+		double amount;
+		double discount;
+		final TreeMap<YearMonth, double[]> months = new TreeMap<>();
+
+		void add(InvoiceScoreRow row, YearMonth firstTrendMonth) {
+			count++;
+			if (Boolean.TRUE.equals(row.getArchived())) {
+				archived++;
+			}
+			amount += row.getAmountInvoice();
+			discount += row.getAmountDiscount();
+			if (row.getDateCreationInvoice() != null) {
+				LocalDate day = new java.sql.Date(row.getDateCreationInvoice().getTime()).toLocalDate();
+				YearMonth month = YearMonth.from(day);
+				if (!month.isBefore(firstTrendMonth)) {
+					double[] monthTotals = months.computeIfAbsent(month, key -> new double[2]);
+					monthTotals[0]++;
+					monthTotals[1] += row.getAmountInvoice();
+				}
+			}
+		}
+
+		Accumulator merge(Accumulator other) {
+			count += other.count;
+			archived += other.archived;
+			amount += other.amount;
+			discount += other.discount;
+			other.months.forEach((month, totals) -> months.merge(month, totals, (a, b) -> new double[]{a[0] + b[0], a[1] + b[1]}));
+			return this;
+		}
+
+		SupplierScorecard toScorecard(Supplier supplier) {
+			List<SupplierScorecard.MonthlyTotal> trend = new ArrayList<>();
+			months.forEach((month, totals) -> trend.add(new SupplierScorecard.MonthlyTotal(month.toString(), (long) totals[0], totals[1])));
+			return new SupplierScorecard(supplier.getIdSupplier(), supplier.getCode(), supplier.getLabel(), count, archived,
+					amount, count == 0 ? 0 : amount / count, discount, amount == 0 ? 0 : discount / amount,
+					count == 0 ? 0 : (double) archived / count, trend);
+		}
+	}
+}
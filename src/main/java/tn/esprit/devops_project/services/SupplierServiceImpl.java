@@ -3,12 +3,22 @@ package tn.esprit.devops_project.services;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.devops_project.dto.SupplierScorecard;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
 import tn.esprit.devops_project.entities.Supplier;
 import tn.esprit.devops_project.repositories.SupplierRepository;
 import tn.esprit.devops_project.services.Iservices.ISupplierService;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -16,34 +26,134 @@ import java.util.List;
 public class SupplierServiceImpl implements ISupplierService {
 
 	SupplierRepository supplierRepository;
+	SupplierScorecardService supplierScorecardService;
+	SupplierCodeIndex supplierCodeIndex;
+	EntityVersions entityVersions;
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Supplier> retrieveAllSuppliers() {
 		return supplierRepository.findAll();
 	}
 
 
 	@Override
+	@Transactional
 	public Supplier addSupplier(Supplier supplier) {
-		return supplierRepository.save(supplier);
+		checkCodeIsFree(supplier);
+		Supplier saved = supplierRepository.save(supplier);
+		supplierCodeIndex.supplierSaved(saved);
+		entityVersions.changed(Supplier.class);
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public Supplier updateSupplier(Supplier supplier) {
-		return  supplierRepository.save(supplier);
+		checkCodeIsFree(supplier);
+		Supplier saved = supplierRepository.save(supplier);
+		supplierCodeIndex.supplierSaved(saved);
+		entityVersions.changed(Supplier.class);
+		return saved;
 	}
 
 	@Override
+	@Transactional
 	public void deleteSupplier(Long SupplierId) {
 		supplierRepository.deleteById(SupplierId);
+		supplierCodeIndex.supplierRemoved(SupplierId);
+		entityVersions.changed(Supplier.class);
 
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Supplier retrieveSupplier(Long supplierId) {
 
 		return supplierRepository.findById(supplierId).orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + supplierId));
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Supplier retrieveSupplierByCode(String code) {
+		Long id = supplierCodeIndex.getId(code);
+		Optional<Supplier> supplier = id == null ? Optional.empty() : findWithCode(id, code);
+		if (supplier.isEmpty()) {
+			// written by another instance since the index was loaded
+			supplier = supplierRepository.findByCode(code);
+			supplier.ifPresent(supplierCodeIndex::supplierSaved);
+		}
+		return supplier.orElseThrow(() -> new IllegalArgumentException("Invalid supplier code:" + code));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Supplier> retrieveSuppliersByCodes(Collection<String> codes) {
+		Map<String, Long> indexed = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+		for (String code : codes) {
+			Long id = supplierCodeIndex.getId(code);
+			if (id == null) {
+				missing.add(code);
+			} else {
+				indexed.put(code, id);
+			}
+		}
+		List<Supplier> suppliers = new ArrayList<>();
+		for (Supplier supplier : supplierRepository.findAllById(indexed.values())) {
+			if (supplier.getCode() != null && supplier.getIdSupplier().equals(indexed.get(supplier.getCode()))) {
+				indexed.remove(supplier.getCode());
+				suppliers.add(supplier);
+			}
+		}
+		// entries left over were renamed or deleted by another instance
+		indexed.forEach((code, id) -> {
+			supplierCodeIndex.evict(code, id);
+			missing.add(code);
+		});
+		if (!missing.isEmpty()) {
+			List<Supplier> found = supplierRepository.findByCodeIn(missing);
+			found.forEach(supplierCodeIndex::supplierSaved);
+			suppliers.addAll(found);
+		}
+		return suppliers;
+	}
+
+	// fails fast with a readable message, the unique constraint still guards concurrent writes
+	private void checkCodeIsFree(Supplier supplier) {
+		if (supplier.getCode() == null) {
+			return;
+		}
+		String code = supplier.getCode();
+		Long owner = supplierCodeIndex.getId(code);
+		if (owner != null && !owner.equals(supplier.getIdSupplier()) && findWithCode(owner, code).isEmpty()) {
+			owner = supplierRepository.findByCode(code).map(Supplier::getIdSupplier).orElse(null);
+		}
+		if (owner != null && !owner.equals(supplier.getIdSupplier())) {
+			throw new IllegalArgumentException("Supplier code already used:" + supplier.getCode());
+		}
+	}
+
+	// loads the supplier an index entry points to, evicting the entry when the supplier no longer holds the code
+	private Optional<Supplier> findWithCode(Long id, String code) {
+		Optional<Supplier> supplier = supplierRepository.findById(id).filter(found -> code.equals(found.getCode()));
+		if (supplier.isEmpty()) {
+			supplierCodeIndex.evict(code, id);
+		}
+		return supplier;
+	}
+
+	@Override
+	public SupplierScorecardSnapshot retrieveScorecards() {
+		return supplierScorecardService.getSnapshot();
+	}
+
+	@Override
+	public SupplierScorecard retrieveScorecard(Long id) {
+		return supplierScorecardService.getSnapshot().getScorecards().stream()
+				.filter(scorecard -> scorecard.getIdSupplier().equals(id))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Invalid supplier Id:" + id));
+	}
 
-}
\ No newline at end of file
+}
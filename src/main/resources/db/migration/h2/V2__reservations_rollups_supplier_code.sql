@@ -0,0 +1,30 @@
+-- H2 counterpart of mysql/V2__reservations_rollups_supplier_code.sql.
+
+-- first, so duplicate supplier codes stop the migration before anything changes
+alter table supplier add constraint uk_supplier_code unique (code);
+
+create table invoice_daily_total (
+    id_invoice_daily_total bigint generated by default as identity,
+    invoice_count bigint not null,
+    invoice_date date,
+    supplier_id bigint,
+    total_cents bigint not null,
+    primary key (id_invoice_daily_total)
+);
+
+create table product_reservation_line (
+    reservation_id bigint not null,
+    product_id bigint,
+    quantity integer not null
+);
+
+create table product_reservation (
+    id_reservation bigint generated by default as identity,
+    date_creation timestamp,
+    status varchar(255),
+    primary key (id_reservation)
+);
+
+create index idx_invoice_supplier_archived_date on invoice (supplier_id_supplier, archived, date_creation_invoice);
+alter table invoice_daily_total add constraint uk_invoice_daily_total_date_supplier unique (invoice_date, supplier_id);
+alter table product_reservation_line add constraint FK425wb7bt2hsmymlh92xrutu9a foreign key (reservation_id) references product_reservation;
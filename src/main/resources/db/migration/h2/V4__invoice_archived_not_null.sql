@@ -0,0 +1,5 @@
+-- H2 counterpart of mysql/V4__invoice_archived_not_null.sql.
+
+update invoice set archived = false where archived is null;
+alter table invoice alter column archived set default false;
+alter table invoice alter column archived set not null;
@@ -0,0 +1,68 @@
+-- Schema as generated by Hibernate before migrations took over (spring.jpa.hibernate.ddl-auto=update).
+-- Existing databases already hold it and are baselined at this version.
+
+create table invoice (
+    id_invoice bigint not null auto_increment,
+    amount_discount float not null,
+    amount_invoice float not null,
+    archived bit,
+    date_creation_invoice date,
+    date_last_modification_invoice date,
+    supplier_id_supplier bigint,
+    primary key (id_invoice)
+) engine=InnoDB;
+
+create table invoice_detail (
+    id_invoice_detail bigint not null auto_increment,
+    price float not null,
+    quantity integer not null,
+    invoice_id_invoice bigint,
+    product_id_product bigint,
+    primary key (id_invoice_detail)
+) engine=InnoDB;
+
+create table operator (
+    id_operateur bigint not null auto_increment,
+    fname varchar(255),
+    lname varchar(255),
+    password varchar(255),
+    primary key (id_operateur)
+) engine=InnoDB;
+
+create table operator_invoices (
+    operator_id_operateur bigint not null,
+    invoices_id_invoice bigint not null,
+    primary key (operator_id_operateur, invoices_id_invoice)
+) engine=InnoDB;
+
+create table product (
+    id_product bigint not null auto_increment,
+    category varchar(255),
+    price float not null,
+    quantity integer not null,
+    title varchar(255),
+    stock_id_stock bigint,
+    primary key (id_product)
+) engine=InnoDB;
+
+create table stock (
+    id_stock bigint not null auto_increment,
+    title varchar(255),
+    primary key (id_stock)
+) engine=InnoDB;
+
+create table supplier (
+    id_supplier bigint not null auto_increment,
+    code varchar(255),
+    label varchar(255),
+    supplier_category varchar(255),
+    primary key (id_supplier)
+) engine=InnoDB;
+
+alter table operator_invoices add constraint UK_nnmg2fltofk8yrs7r5v7nu39q unique (invoices_id_invoice);
+alter table invoice add constraint FK211pcrtru21a8lt9qn10ii89k foreign key (supplier_id_supplier) references supplier (id_supplier);
+alter table invoice_detail add constraint FKe3e6jd926bti5bxu2sg43ayex foreign key (invoice_id_invoice) references invoice (id_invoice);
+alter table invoice_detail add constraint FKk3uyq1a6lb4hgccxwxbmyj51u foreign key (product_id_product) references product (id_product);
+alter table operator_invoices add constraint FKcc3kg7v0mwl58mnmm0w04bwoc foreign key (invoices_id_invoice) references invoice (id_invoice);
+alter table operator_invoices add constraint FKho8r5qqb74bybuxxcfo3b9hl0 foreign key (operator_id_operateur) references operator (id_operateur);
+alter table product add constraint FKq21d0dqncd4rvyapq2dtelyj1 foreign key (stock_id_stock) references stock (id_stock);
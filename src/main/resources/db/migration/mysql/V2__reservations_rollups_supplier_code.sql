@@ -0,0 +1,35 @@
+-- Tables and constraints added on top of the V1 schema: the invoice daily rollups, product
+-- reservations, the supplier code lookup and the supplier invoice pages.
+-- invoice_daily_total starts empty and is filled by InvoiceRollupService.backfillIfEmpty.
+
+-- Supplier codes were free text before. The unique constraint comes first so that, when codes are
+-- duplicated, the migration stops before changing anything and the error names the duplicate code.
+-- List them with: select code, count(*) from supplier group by code having count(*) > 1
+-- then rename or merge those suppliers and run the migration again.
+alter table supplier add constraint uk_supplier_code unique (code);
+
+create table invoice_daily_total (
+    id_invoice_daily_total bigint not null auto_increment,
+    invoice_count bigint not null,
+    invoice_date date,
+    supplier_id bigint,
+    total_cents bigint not null,
+    primary key (id_invoice_daily_total)
+) engine=InnoDB;
+
+create table product_reservation_line (
+    reservation_id bigint not null,
+    product_id bigint,
+    quantity integer not null
+) engine=InnoDB;
+
+create table product_reservation (
+    id_reservation bigint not null auto_increment,
+    date_creation datetime(6),
+    status varchar(255),
+    primary key (id_reservation)
+) engine=InnoDB;
+
+create index idx_invoice_supplier_archived_date on invoice (supplier_id_supplier, archived, date_creation_invoice);
+alter table invoice_daily_total add constraint uk_invoice_daily_total_date_supplier unique (invoice_date, supplier_id);
+alter table product_reservation_line add constraint FK425wb7bt2hsmymlh92xrutu9a foreign key (reservation_id) references product_reservation (id_reservation);
@@ -0,0 +1,6 @@
+-- Invoices saved without an archived flag were open for some queries and ignored by others
+-- (supplier pages, daily rollups). They are open: backfill them and keep the column set from now on.
+-- The daily rollups pick them up at the next InvoiceRollupService.reconcile.
+
+update invoice set archived = false where archived is null;
+alter table invoice modify archived bit not null default 0;
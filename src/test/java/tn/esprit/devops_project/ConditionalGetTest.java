@@ -0,0 +1,115 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.ServletWebRequest;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.services.EntityVersions;
+import tn.esprit.devops_project.services.Iservices.IProductService;
+import tn.esprit.devops_project.services.Iservices.IStockService;
+import tn.esprit.devops_project.services.Iservices.ISupplierService;
+
+import javax.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ISupplierService supplierService;
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unchangedListIsAnsweredWithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/supplier"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        statistics.clear();
+        mockMvc.perform(get("/supplier").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        Supplier supplier = new Supplier();
+        supplier.setCode("ETAG");
+        supplier.setLabel("Conditional");
+        supplierService.addSupplier(supplier);
+
+        String changed = mockMvc.perform(get("/supplier").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void stockTagFollowsItsProducts() throws Exception {
+        Stock stock = new Stock();
+        stock.setTitle("Conditional");
+        stock = stockService.addStock(stock);
+        String etag = mockMvc.perform(get("/stock/" + stock.getIdStock()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/stock/" + stock.getIdStock()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Product product = new Product();
+        product.setTitle("tagged");
+        product.setPrice(1);
+        product.setQuantity(1);
+        productService.addProduct(product, stock.getIdStock());
+
+        mockMvc.perform(get("/stock/" + stock.getIdStock()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void readReplicasDisableTagging() {
+        String etag = new EntityVersions(true, false).etag(Supplier.class);
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/supplier");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertNull(new EntityVersions(true, true).etag(Supplier.class));
+        assertNull(new EntityVersions(false, false).etag(Supplier.class));
+        assertFalse(new ServletWebRequest(conditional, new MockHttpServletResponse())
+                .checkNotModified(new EntityVersions(true, true).etag(Supplier.class)),
+                "Without a tag every conditional request gets the full response");
+    }
+}
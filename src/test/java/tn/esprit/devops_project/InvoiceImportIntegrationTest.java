@@ -0,0 +1,120 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.repositories.InvoiceDetailRepository;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.InvoiceRollupService;
+import tn.esprit.devops_project.services.Iservices.IInvoiceService;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+@SpringBootTest(properties = "invoice.import.batch-size=2")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class InvoiceImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceDetailRepository invoiceDetailRepository;
+
+    @Autowired
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private IInvoiceService invoiceService;
+
+    @SpyBean
+    private InvoiceRollupService invoiceRollupService;
+
+    @AfterEach
+    void cleanUp() {
+        invoiceDetailRepository.deleteAllInBatch();
+        invoiceRepository.deleteAllInBatch();
+        invoiceDailyTotalRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        supplierRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importAcceptsValidLinesAndReportsRejectedOnes() throws Exception {
+        Supplier supplier = supplierRepository.save(new Supplier());
+        Product product = new Product();
+        product.setTitle("paper");
+        product = productRepository.save(product);
+        String valid = "{\"supplierId\":" + supplier.getIdSupplier() + ",\"dateCreationInvoice\":\"2024-03-01\","
+                + "\"details\":[{\"productId\":" + product.getIdProduct() + ",\"quantity\":2,\"price\":5.5}]}";
+        String body = valid + "\n"
+                + "{not json}\n"
+                + valid.replace("\"productId\":" + product.getIdProduct(), "\"productId\":-1") + "\n"
+                + "\n"
+                + valid + "\n"
+                + valid + "\n"
+                + "{\"details\":[null]}\n";
+
+        mockMvc.perform(post("/invoice/import").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[1].line").value(3))
+                .andExpect(jsonPath("$.errors[2].line").value(7));
+
+        assertEquals(3, invoiceRepository.count(), "Valid invoices should be written");
+        assertEquals(3, invoiceDetailRepository.count(), "Detail lines should be written with their invoice");
+        Date day = Date.valueOf("2024-03-01");
+        assertEquals(new BigDecimal("33.00"), invoiceService.getTotalAmountInvoiceBetweenDates(day, day),
+                "Imported invoices should be added to the daily rollups");
+    }
+
+    @Test
+    void failedBatchIsReportedAndTheImportGoesOn() throws Exception {
+        Supplier supplier = supplierRepository.save(new Supplier());
+        Product product = new Product();
+        product.setTitle("paper");
+        product = productRepository.save(product);
+        String valid = "{\"supplierId\":" + supplier.getIdSupplier() + ",\"dateCreationInvoice\":\"2024-03-01\","
+                + "\"details\":[{\"productId\":" + product.getIdProduct() + ",\"quantity\":1,\"price\":2}]}\n";
+        doThrow(new IllegalStateException()).doCallRealMethod().when(invoiceRollupService).invoicesAdded(any());
+
+        mockMvc.perform(post("/invoice/import").contentType("application/x-ndjson").content(valid.repeat(4)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(1))
+                .andExpect(jsonPath("$.errors[1].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Batch rolled back: IllegalStateException"));
+
+        assertEquals(2, invoiceRepository.count(), "The failed batch should be rolled back and the next one written");
+    }
+}
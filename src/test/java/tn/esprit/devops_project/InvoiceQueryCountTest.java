@@ -0,0 +1,225 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.devops_project.dto.ExportFormat;
+import tn.esprit.devops_project.dto.SupplierInvoiceSummary;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDetail;
+import tn.esprit.devops_project.entities.Operator;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.repositories.InvoiceDetailRepository;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.OperatorRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.Iservices.IInvoiceExportService;
+import tn.esprit.devops_project.services.Iservices.IInvoiceService;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.StringWriter;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Counts the SQL statements each invoice read endpoint and bulk operation issues, so an N+1
+ * regression (lazy loading of details or products, hydrating entities for bulk updates) fails the build.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class InvoiceQueryCountTest {
+
+    private static final int INVOICES = 10;
+    private static final int DETAILS_PER_INVOICE = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceDetailRepository invoiceDetailRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Autowired
+    private OperatorRepository operatorRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private IInvoiceService invoiceService;
+
+    @Autowired
+    private IInvoiceExportService invoiceExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long firstInvoiceId;
+
+    private Long supplierId;
+
+    @BeforeEach
+    void seed() {
+        Supplier supplier = supplierRepository.save(new Supplier());
+        supplierId = supplier.getIdSupplier();
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setSupplier(supplier);
+            invoice.setAmountInvoice(100f * (i + 1));
+            invoice.setDateCreationInvoice(new Date());
+            invoice.setArchived(false);
+            invoice = invoiceRepository.save(invoice);
+            if (firstInvoiceId == null) {
+                firstInvoiceId = invoice.getIdInvoice();
+            }
+            for (int j = 0; j < DETAILS_PER_INVOICE; j++) {
+                Product product = new Product();
+                product.setTitle("product " + i + "-" + j);
+                product.setPrice(10f);
+                product.setQuantity(5);
+                product.setCategory(ProductCategory.BOOKS);
+                product = productRepository.save(product);
+
+                InvoiceDetail detail = new InvoiceDetail();
+                detail.setQuantity(1);
+                detail.setPrice(10f);
+                detail.setProduct(product);
+                detail.setInvoice(invoice);
+                invoiceDetailRepository.save(detail);
+            }
+        }
+        statistics().clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from operator_invoices");
+        operatorRepository.deleteAll();
+        invoiceDetailRepository.deleteAllInBatch();
+        invoiceRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        supplierRepository.deleteAllInBatch();
+        invoiceDailyTotalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getInvoicesRunsASingleQuery() throws Exception {
+        mockMvc.perform(get("/invoice")).andExpect(status().isOk());
+
+        assertEquals(1, statistics().getPrepareStatementCount(), "GET /invoice should fetch the whole graph at once");
+    }
+
+    @Test
+    void getInvoiceRunsASingleQuery() throws Exception {
+        mockMvc.perform(get("/invoice/" + firstInvoiceId)).andExpect(status().isOk());
+
+        assertEquals(1, statistics().getPrepareStatementCount(), "GET /invoice/{id} should fetch the whole graph at once");
+    }
+
+    @Test
+    void getInvoicesPageRunsTwoQueries() throws Exception {
+        mockMvc.perform(get("/invoice/page").param("size", "4")).andExpect(status().isOk());
+
+        assertEquals(2, statistics().getPrepareStatementCount(), "GET /invoice/page should page ids then fetch the graph");
+    }
+
+    @Test
+    void supplierInvoicesPageRunsThreeQueries() {
+        Page<Invoice> page = invoiceService.getInvoicesBySupplier(supplierId, false, null, null,
+                PageRequest.of(1, 4, Sort.by(Sort.Direction.DESC, "amountInvoice")));
+
+        assertEquals(INVOICES, page.getTotalElements(), "Total should count every open invoice of the supplier");
+        assertEquals(600f, page.getContent().get(0).getAmountInvoice(), "Requested sort order should be kept");
+        assertEquals(DETAILS_PER_INVOICE, page.getContent().get(0).getInvoiceDetails().size());
+        // count, id page, graph
+        assertEquals(3, statistics().getPrepareStatementCount(), "Supplier page should not load invoices one by one");
+    }
+
+    @Test
+    void supplierInvoiceSummaryIsComputedInTheDatabase() {
+        invoiceService.archiveInvoices(List.of(firstInvoiceId));
+        statistics().clear();
+
+        SupplierInvoiceSummary open = invoiceService.getSupplierInvoiceSummary(supplierId, false, null, null);
+        SupplierInvoiceSummary all = invoiceService.getSupplierInvoiceSummary(supplierId, true, null, null);
+
+        assertEquals(INVOICES - 1, open.getInvoiceCount(), "Archived invoices should be excluded by default");
+        assertEquals(5400.0, open.getTotalAmount(), 0.001);
+        assertEquals(INVOICES, all.getInvoiceCount(), "Archived invoices should be included on request");
+        assertEquals(0, statistics().getEntityLoadCount(), "Summary should not load invoice entities");
+    }
+
+    @Test
+    void archiveBetweenDatesDoesNotHydrateInvoices() {
+        Date today = new Date();
+
+        int archived = invoiceService.archiveInvoicesBetweenDates(today, today);
+
+        assertEquals(INVOICES, archived, "Every invoice of the day should be archived");
+        assertEquals(0, statistics().getEntityLoadCount(), "Bulk archiving should not load invoice entities");
+        // select chunk and update chunk, the rollup upsert is a single JDBC statement outside Hibernate
+        assertEquals(2, statistics().getPrepareStatementCount(), "Bulk archiving should use set-based statements");
+    }
+
+    @Test
+    void assignOperatorDoesNotLoadInvoiceCollection() {
+        Operator operator = operatorRepository.save(new Operator());
+        List<Long> invoiceIds = List.of(firstInvoiceId, firstInvoiceId + 1, firstInvoiceId + 2);
+        statistics().clear();
+
+        invoiceService.assignOperatorToInvoices(operator.getIdOperateur(), invoiceIds);
+        invoiceService.assignOperatorToInvoices(operator.getIdOperateur(), invoiceIds);
+
+        assertEquals(0, statistics().getCollectionLoadCount(), "Assigning should not load Operator.invoices");
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from operator_invoices where operator_id_operateur = ?",
+                Integer.class, operator.getIdOperateur()), "Reassigning the same invoices should not duplicate rows");
+    }
+
+    @Test
+    void exportStreamsRowsWithoutLoadingEntities() throws Exception {
+        Date today = new Date();
+        StringWriter csv = new StringWriter();
+
+        long exported = invoiceExportService.exportInvoices(today, today, ExportFormat.CSV, csv);
+
+        assertEquals(INVOICES, exported, "Every invoice of the day should be exported");
+        assertEquals(INVOICES + 1, csv.toString().split("\n").length, "Export should hold a header and one line per invoice");
+        assertEquals(0, statistics().getEntityLoadCount(), "Export should not load invoice entities");
+        assertEquals(1, statistics().getPrepareStatementCount(), "Export should read a single cursor");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
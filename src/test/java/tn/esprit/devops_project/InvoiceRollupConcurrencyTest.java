@@ -0,0 +1,79 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.services.InvoiceRollupService;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Adds the first invoices of a day and supplier from several transactions at once: every one of them
+ * must land in the single rollup row, none may fail on its unique key.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class InvoiceRollupConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int DAYS = 20;
+    private static final long SUPPLIER = 42L;
+
+    @Autowired
+    private InvoiceRollupService invoiceRollupService;
+
+    @Autowired
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        invoiceDailyTotalRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentFirstInvoicesShareOneRollupRow() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int d = 0; d < DAYS; d++) {
+                Date day = Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(d));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        invoiceRollupService.applyDelta(day, SUPPLIER, 100, 1);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(DAYS, invoiceDailyTotalRepository.count(), "One rollup row per day and supplier");
+        assertEquals((long) DAYS * THREADS, jdbcTemplate.queryForObject(
+                "select sum(invoice_count) from invoice_daily_total where supplier_id = ?", Long.class, SUPPLIER));
+        assertEquals(DAYS * THREADS * 100L, invoiceRollupService.getSupplierTotalAmountBetweenDates(SUPPLIER,
+                Date.valueOf("2024-01-01"), Date.valueOf("2024-12-31")).movePointRight(2).longValueExact());
+    }
+}
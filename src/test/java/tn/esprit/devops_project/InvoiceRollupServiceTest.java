@@ -0,0 +1,104 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.devops_project.dto.DailyInvoiceAmount;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.InvoiceDailyTotal;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalUpsertRepository;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.services.InvoiceRollupService;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceRollupServiceTest {
+
+    private static final Date DAY = Date.valueOf("2024-03-01");
+
+    @Mock
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Mock
+    private InvoiceDailyTotalUpsertRepository invoiceDailyTotalUpsertRepository;
+
+    @Mock
+    private InvoiceRepository invoiceRepository;
+
+    @InjectMocks
+    private InvoiceRollupService invoiceRollupService;
+
+    @Test
+    void testInvoiceAddedAddsToRollup() {
+        invoiceRollupService.invoiceAdded(invoice(19.99f, false));
+
+        verify(invoiceDailyTotalUpsertRepository).addToTotal(DAY, 7L, 1999L, 1L);
+    }
+
+    @Test
+    void testInvoiceRemovedSubtractsFromRollup() {
+        invoiceRollupService.invoiceRemoved(invoice(19.99f, false));
+
+        verify(invoiceDailyTotalUpsertRepository).addToTotal(DAY, 7L, -1999L, -1L);
+    }
+
+    @Test
+    void testArchivedInvoiceIsIgnored() {
+        invoiceRollupService.invoiceRemoved(invoice(19.99f, true));
+
+        verifyNoInteractions(invoiceDailyTotalUpsertRepository);
+    }
+
+    @Test
+    void testGetTotalAmountBetweenDates() {
+        when(invoiceDailyTotalRepository.sumCentsBetweenDates(DAY, DAY)).thenReturn(123456L);
+
+        assertEquals(new BigDecimal("1234.56"), invoiceRollupService.getTotalAmountBetweenDates(DAY, DAY));
+    }
+
+    @Test
+    void testReconcileFixesDriftedAndMissingRows() {
+        InvoiceDailyTotal drifted = new InvoiceDailyTotal(1L, DAY, 7L, 500L, 1L);
+        when(invoiceDailyTotalRepository.findAll()).thenReturn(List.of(drifted));
+        when(invoiceRepository.retrieveDailyInvoiceAmounts()).thenReturn(List.of(
+                amount(DAY, 7L, 2L, 30.0), amount(DAY, null, 1L, 10.0)));
+
+        int corrected = invoiceRollupService.reconcile();
+
+        assertEquals(2, corrected, "Drifted row and missing row should both be corrected");
+        verify(invoiceDailyTotalUpsertRepository).addToTotal(DAY, 7L, 2500L, 1L);
+        verify(invoiceDailyTotalUpsertRepository).addToTotal(DAY, InvoiceRollupService.NO_SUPPLIER, 1000L, 1L);
+        verify(invoiceDailyTotalRepository, never()).save(any());
+    }
+
+    private static Invoice invoice(float amount, boolean archived) {
+        Supplier supplier = new Supplier();
+        supplier.setIdSupplier(7L);
+        Invoice invoice = new Invoice();
+        invoice.setAmountInvoice(amount);
+        invoice.setArchived(archived);
+        invoice.setDateCreationInvoice(DAY);
+        invoice.setSupplier(supplier);
+        return invoice;
+    }
+
+    private static DailyInvoiceAmount amount(Date day, Long supplierId, Long count, Double total) {
+        return new DailyInvoiceAmount() {
+            public java.util.Date getInvoiceDate() { return day; }
+            public Long getSupplierId() { return supplierId; }
+            public Long getInvoiceCount() { return count; }
+            public Double getTotalAmount() { return total; }
+        };
+    }
+}
@@ -5,17 +5,29 @@ import static org.mockito.Mockito.*;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.esprit.devops_project.dto.InvoiceAmountRow;
+import tn.esprit.devops_project.dto.InvoicePage;
+import tn.esprit.devops_project.dto.OperatorAssignment;
 import tn.esprit.devops_project.entities.Invoice;
 import tn.esprit.devops_project.entities.Operator;
 import tn.esprit.devops_project.entities.Supplier;
 import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.OperatorInvoiceRepository;
 import tn.esprit.devops_project.repositories.OperatorRepository;
 import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.InvoiceRollupService;
 import tn.esprit.devops_project.services.InvoiceServiceImpl;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @ExtendWith(MockitoExtension.class)  // Automatically initializes mocks
@@ -30,6 +42,18 @@ class InvoiceServiceImplTest {
     @Mock
     private SupplierRepository supplierRepository;
 
+    @Mock
+    private InvoiceRollupService invoiceRollupService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OperatorInvoiceRepository operatorInvoiceRepository;
+
+    @Captor
+    private ArgumentCaptor<List<OperatorAssignment>> assignmentsCaptor;
+
     @InjectMocks
     private InvoiceServiceImpl invoiceService;
 
@@ -46,17 +70,84 @@ class InvoiceServiceImplTest {
     }
 
     @Test
-    void testCancelInvoice() {
+    void testRetrieveInvoicesPage() {
+        Invoice invoice1 = new Invoice();
+        invoice1.setIdInvoice(11L);
+        Invoice invoice2 = new Invoice();
+        invoice2.setIdInvoice(12L);
+        when(invoiceRepository.retrieveInvoiceIdsAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(11L, 12L, 13L));
+        when(invoiceRepository.retrieveInvoicesWithDetails(List.of(11L, 12L))).thenReturn(List.of(invoice1, invoice2));
+
+        InvoicePage page = invoiceService.retrieveInvoicesPage(InvoiceServiceImpl.encodeCursor(10L), 2);
+
+        assertEquals(2, page.getInvoices().size(), "Page should be trimmed to the requested size");
+        assertEquals(12L, InvoiceServiceImpl.decodeCursor(page.getNextCursor()), "Next cursor should point after the last returned invoice");
+    }
+
+    @Test
+    void testRetrieveInvoicesPage_LastPage() {
         Invoice invoice = new Invoice();
         invoice.setIdInvoice(1L);
-        invoice.setArchived(false);
+        when(invoiceRepository.retrieveInvoiceIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L));
+        when(invoiceRepository.retrieveInvoicesWithDetails(List.of(1L))).thenReturn(List.of(invoice));
 
-        when(invoiceRepository.findById(1L)).thenReturn(Optional.of(invoice));
+        InvoicePage page = invoiceService.retrieveInvoicesPage(null, 2);
+
+        assertEquals(1, page.getInvoices().size(), "Last page should hold the remaining invoices");
+        assertNull(page.getNextCursor(), "Last page should not have a next cursor");
+    }
+
+    @Test
+    void testRetrieveInvoicesPage_InvalidCursor() {
+        String negative = Base64.getUrlEncoder().withoutPadding().encodeToString("-5".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.retrieveInvoicesPage("not base64!", 2));
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.retrieveInvoicesPage(negative, 2),
+                "Cursors never point before the first invoice");
+    }
+
+    @Test
+    void testRetrieveInvoicesPage_InvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> invoiceService.retrieveInvoicesPage(null, 0));
+    }
+
+    @Test
+    void testCancelInvoice() {
+        InvoiceAmountRow row = mock(InvoiceAmountRow.class);
+        when(row.getIdInvoice()).thenReturn(1L);
+        when(invoiceRepository.retrieveOpenInvoiceRows(List.of(1L))).thenReturn(List.of(row));
+
+        invoiceService.cancelInvoice(1L);
+
+        verify(invoiceRepository, times(1)).archiveInvoices(eq(List.of(1L)), any(Date.class));
+        verify(invoiceRollupService, times(1)).invoicesRemoved(List.of(row));
+    }
+
+    @Test
+    void testCancelInvoice_AlreadyArchived() {
+        when(invoiceRepository.retrieveOpenInvoiceRows(List.of(1L))).thenReturn(List.of());
+        when(invoiceRepository.existsById(1L)).thenReturn(true);
 
         invoiceService.cancelInvoice(1L);
 
-        assertTrue(invoice.getArchived(), "Invoice should be archived after cancellation");
-        verify(invoiceRepository, times(1)).save(invoice);
+        verify(invoiceRepository, never()).archiveInvoices(any(), any());
+        verifyNoInteractions(invoiceRollupService);
+    }
+
+    @Test
+    void testArchiveInvoices() {
+        InvoiceAmountRow row = mock(InvoiceAmountRow.class);
+        when(row.getIdInvoice()).thenReturn(1L);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(invoiceRepository.retrieveOpenInvoiceRows(List.of(1L, 2L))).thenReturn(List.of(row));
+        when(invoiceRepository.archiveInvoices(eq(List.of(1L)), any(Date.class))).thenReturn(1);
+
+        int archived = invoiceService.archiveInvoices(List.of(1L, 2L));
+
+        assertEquals(1, archived, "Only the open invoice should be archived");
+        verify(invoiceRollupService, times(1)).invoicesRemoved(List.of(row));
+        verify(invoiceRepository, never()).findById(any());
     }
 
     @Test
@@ -64,7 +155,7 @@ class InvoiceServiceImplTest {
         Invoice invoice = new Invoice();
         invoice.setIdInvoice(1L);
 
-        when(invoiceRepository.findById(1L)).thenReturn(Optional.of(invoice));
+        when(invoiceRepository.retrieveInvoiceWithDetails(1L)).thenReturn(Optional.of(invoice));
 
         Invoice result = invoiceService.retrieveInvoice(1L);
 
@@ -106,20 +197,61 @@ class InvoiceServiceImplTest {
         verify(operatorRepository, times(1)).save(operator);
     }
 
+    @Test
+    void testAssignOperatorToInvoices() {
+        when(operatorRepository.existsById(1L)).thenReturn(true);
+        when(invoiceRepository.retrieveExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+
+        invoiceService.assignOperatorToInvoices(1L, List.of(1L, 2L, 2L));
+
+        verify(operatorInvoiceRepository).assign(assignmentsCaptor.capture());
+        assertEquals(2, assignmentsCaptor.getValue().size(), "Duplicate invoice ids should be assigned once");
+        verify(operatorRepository, never()).findById(any());
+    }
+
+    @Test
+    void testAssignOperatorToInvoices_OperatorNotFound() {
+        when(operatorRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NullPointerException.class, () -> invoiceService.assignOperatorToInvoices(1L, List.of(1L)));
+        verifyNoInteractions(operatorInvoiceRepository);
+    }
+
+    @Test
+    void testAssignOperatorToInvoices_InvoiceNotFound() {
+        when(operatorRepository.existsById(1L)).thenReturn(true);
+        when(invoiceRepository.retrieveExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        NullPointerException e = assertThrows(NullPointerException.class,
+                () -> invoiceService.assignOperatorToInvoices(1L, List.of(1L, 2L)));
+        assertEquals("Invoice not found: [2]", e.getMessage());
+        verifyNoInteractions(operatorInvoiceRepository);
+    }
+
+    @Test
+    void testAssignOperators_OperatorNotFound() {
+        when(invoiceRepository.retrieveExistingIds(List.of(1L))).thenReturn(List.of(1L));
+        when(operatorRepository.retrieveExistingIds(List.of(9L))).thenReturn(List.of());
+
+        assertThrows(NullPointerException.class, () -> invoiceService.assignOperators(List.of(new OperatorAssignment(9L, 1L))));
+        verifyNoInteractions(operatorInvoiceRepository);
+    }
+
     @Test
     void testGetTotalAmountInvoiceBetweenDates() {
         Date startDate = new Date();
         Date endDate = new Date();
-        when(invoiceRepository.getTotalAmountInvoiceBetweenDates(startDate, endDate)).thenReturn(1000.0f);
+        when(invoiceRollupService.getTotalAmountBetweenDates(startDate, endDate)).thenReturn(new BigDecimal("1000.00"));
 
-        float totalAmount = invoiceService.getTotalAmountInvoiceBetweenDates(startDate, endDate);
+        BigDecimal totalAmount = invoiceService.getTotalAmountInvoiceBetweenDates(startDate, endDate);
 
-        assertEquals(1000.0f, totalAmount, "Total amount should match expected value");
+        assertEquals(new BigDecimal("1000.00"), totalAmount, "Total amount should match expected value");
     }
 
     @Test
     void testCancelInvoice_NotFound() {
-        when(invoiceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(invoiceRepository.retrieveOpenInvoiceRows(List.of(1L))).thenReturn(List.of());
+        when(invoiceRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(NullPointerException.class, () -> invoiceService.cancelInvoice(1L));
     }
@@ -0,0 +1,126 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.esprit.devops_project.dto.LowStockAlert;
+import tn.esprit.devops_project.dto.ProductStockLevel;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.services.LowStockAlertServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockAlertServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private LowStockAlertServiceImpl alertService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertService, "defaultThreshold", 5);
+    }
+
+    @Test
+    void testRaisesOnceAndClearsOnRestock() {
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 4)));
+        LowStockAlert alert = alertService.retrieveActiveAlerts(null).get(0);
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 2)));
+
+        assertEquals(1, alertService.retrieveActiveAlerts(null).size(), "A product keeps a single alert");
+        assertSame(alert, alertService.retrieveActiveAlerts(null).get(0));
+        assertEquals(2, alert.getQuantity(), "The alert should follow the quantity");
+
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 6)));
+        assertTrue(alertService.retrieveActiveAlerts(null).isEmpty());
+    }
+
+    @Test
+    void testProductThresholdWinsOverCategory() {
+        when(productRepository.retrieveStockLevelsByCategory(ProductCategory.BOOKS))
+                .thenReturn(List.of(level(1L, ProductCategory.BOOKS, 8), level(2L, ProductCategory.BOOKS, 20)));
+        when(productRepository.retrieveStockLevels(List.of(2L))).thenReturn(List.of(level(2L, ProductCategory.BOOKS, 20)));
+
+        alertService.setCategoryThreshold(ProductCategory.BOOKS, 10);
+        alertService.setProductThreshold(2L, 25);
+
+        assertEquals(2, alertService.retrieveActiveAlerts(ProductCategory.BOOKS).size(),
+                "Changing a threshold should re-evaluate the affected products");
+        assertEquals(25, alertService.retrieveActiveAlerts(null).stream()
+                .filter(alert -> alert.getIdProduct() == 2L).findFirst().orElseThrow().getThreshold());
+        assertTrue(alertService.retrieveActiveAlerts(ProductCategory.ELECTRONICS).isEmpty());
+    }
+
+    @Test
+    void testRemovedProductClearsItsAlert() {
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 0)));
+
+        alertService.productRemoved(1L);
+
+        assertTrue(alertService.retrieveActiveAlerts(null).isEmpty());
+    }
+
+    @Test
+    void testRemovalWaitsForTheTransactionToCommit() {
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 0)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            alertService.productRemoved(1L);
+
+            assertEquals(1, alertService.retrieveActiveAlerts(null).size(), "A rolled back deletion must keep the alert");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(alertService.retrieveActiveAlerts(null).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventsAreSentOffTheCallingThread() throws Exception {
+        List<String> senders = new CopyOnWriteArrayList<>();
+        CountDownLatch sent = new CountDownLatch(1);
+        List<SseEmitter> emitters = (List<SseEmitter>) ReflectionTestUtils.getField(alertService, "emitters");
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                senders.add(Thread.currentThread().getName());
+                sent.countDown();
+            }
+        });
+
+        alertService.stockLevelsChanged(List.of(level(1L, ProductCategory.BOOKS, 0)));
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS), "The subscriber should receive the alert");
+        assertNotEquals(Thread.currentThread().getName(), senders.get(0));
+        alertService.shutdown();
+    }
+
+    @Test
+    void testNegativeThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> alertService.setProductThreshold(1L, -1));
+    }
+
+    private static ProductStockLevel level(Long id, ProductCategory category, int quantity) {
+        return new ProductStockLevel(id, "product " + id, category, quantity);
+    }
+}
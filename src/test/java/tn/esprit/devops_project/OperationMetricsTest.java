@@ -0,0 +1,67 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.devops_project.services.Iservices.ISupplierService;
+
+// a real Hikari pool rather than the embedded test database, so the pool metrics are bound
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class OperationMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ISupplierService supplierService;
+
+    @Test
+    void serviceAndRepositoryCallsAreTimed() throws Exception {
+        mockMvc.perform(get("/supplier")).andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("service.calls").tag("service", "ISupplierService")
+                .tag("method", "retrieveAllSuppliers").tag("endpoint", "GET /supplier").timer().count());
+        assertTrue(meterRegistry.get("repository.calls").tag("repository", "SupplierRepository").tag("entity", "Supplier")
+                .tag("method", "findAll").timer().count() >= 1, "Inherited repository methods should be timed");
+        assertEquals(0, meterRegistry.get("service.in.flight").tag("service", "ISupplierService")
+                .tag("method", "retrieveAllSuppliers").gauge().value());
+    }
+
+    @Test
+    void failuresAreCounted() {
+        assertThrows(IllegalArgumentException.class, () -> supplierService.retrieveSupplier(-1L));
+
+        assertEquals(1, meterRegistry.get("service.errors").tag("method", "retrieveSupplier")
+                .tag("exception", "IllegalArgumentException").tag("endpoint", "none").counter().count());
+    }
+
+    @Test
+    void prometheusEndpointExposesHistograms() throws Exception {
+        supplierService.retrieveAllSuppliers();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(Matchers.containsString("service_calls_seconds_bucket")))
+                .andExpect(content().string(Matchers.containsString("hikaricp_connections_active")))
+                .andExpect(content().string(Matchers.containsString("hibernate_sessions_open_total")));
+    }
+}
@@ -0,0 +1,107 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.StockRepository;
+import tn.esprit.devops_project.services.ProductSearchIndex;
+
+@SpringBootTest(properties = "product.import.batch-size=2")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ProductImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private Stock stock;
+
+    @BeforeEach
+    void setUp() {
+        stock = stockRepository.save(new Stock(0, "warehouse", null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void jsonImportReportsRejectedElements() throws Exception {
+        String body = "[{\"title\":\"pen\",\"price\":1.5,\"quantity\":10,\"category\":\"BOOKS\"},"
+                + "{\"title\":\"bad\",\"price\":\"abc\",\"quantity\":1,\"category\":\"BOOKS\"},"
+                + "{\"title\":\"\",\"price\":1,\"quantity\":1,\"category\":\"BOOKS\"},"
+                + "{\"title\":\"ink\",\"price\":3,\"quantity\":4,\"category\":\"BOOKS\"},"
+                + "{\"title\":\"lamp\",\"price\":20,\"quantity\":2,\"category\":\"ELECTRONICS\"}]";
+
+        mockMvc.perform(post("/product/" + stock.getIdStock() + "/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[1].line").value(3));
+
+        assertEquals(3, productRepository.findByStockIdStock(stock.getIdStock()).size());
+        assertEquals(1, productSearchIndex.search("lamp", null, stock.getIdStock(), null, null, 10).size(),
+                "Imported products should be searchable");
+    }
+
+    @Test
+    void jsonImportKeepsTheRecordsBeforeASyntaxError() throws Exception {
+        String body = "[{\"title\":\"pen\",\"price\":1.5,\"quantity\":10,\"category\":\"BOOKS\"},"
+                + "{\"title\":\"ink\",,\"price\":3},"
+                + "{\"title\":\"lamp\",\"price\":20,\"quantity\":2,\"category\":\"ELECTRONICS\"}]";
+
+        mockMvc.perform(post("/product/" + stock.getIdStock() + "/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+
+        assertEquals(1, productRepository.findByStockIdStock(stock.getIdStock()).size());
+    }
+
+    @Test
+    void csvImportReportsRejectedLines() throws Exception {
+        String body = "title,price,quantity,category\n"
+                + "\"Pens, blue\",1.5,10,books\n"
+                + "shirt,x,1,CLOTHING\n"
+                + "hat,5,2,HATS\n"
+                + "\n"
+                + "phone,200,1,ELECTRONICS\n";
+
+        mockMvc.perform(post("/product/" + stock.getIdStock() + "/batch").contentType("text/csv").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[1].line").value(4));
+
+        assertTrue(productRepository.findByStockIdStock(stock.getIdStock()).stream()
+                .anyMatch(product -> product.getTitle().equals("Pens, blue")), "Quoted titles may hold commas");
+    }
+}
@@ -0,0 +1,141 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.ProductReservation;
+import tn.esprit.devops_project.entities.ReservationLine;
+import tn.esprit.devops_project.entities.ReservationStatus;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.ProductReservationRepository;
+import tn.esprit.devops_project.services.Iservices.IProductService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hammers the reservation API from many threads and checks that no unit is lost or oversold.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ProductReservationConcurrencyTest {
+
+    private static final int ATTEMPTS = 400;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReservationRepository productReservationRepository;
+
+    @AfterEach
+    void cleanUp() {
+        productReservationRepository.deleteAll();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Product product = productRepository.save(product(250));
+
+        int reserved = reserveConcurrently(8, () -> List.of(new ReservationLine(product.getIdProduct(), 1)));
+
+        assertEquals(250, reserved, "Exactly the available units should be reserved");
+        assertEquals(0, productRepository.findById(product.getIdProduct()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void multiLineReservationsAreAllOrNothing() throws Exception {
+        Product first = productRepository.save(product(100));
+        Product second = productRepository.save(product(60));
+
+        // opposite line order on half of the calls must not deadlock
+        AtomicInteger calls = new AtomicInteger();
+        int reserved = reserveConcurrently(8, () -> calls.incrementAndGet() % 2 == 0
+                ? List.of(new ReservationLine(first.getIdProduct(), 1), new ReservationLine(second.getIdProduct(), 1))
+                : List.of(new ReservationLine(second.getIdProduct(), 1), new ReservationLine(first.getIdProduct(), 1)));
+
+        assertEquals(60, reserved, "The scarcest product should bound the reservations");
+        assertEquals(40, productRepository.findById(first.getIdProduct()).orElseThrow().getQuantity(),
+                "Failed reservations should not keep the units of their other lines");
+        assertEquals(0, productRepository.findById(second.getIdProduct()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void releaseRestoresUnitsOnlyOnce() {
+        Product product = productRepository.save(product(5));
+        ProductReservation reservation = productService.reserveProducts(List.of(new ReservationLine(product.getIdProduct(), 3)));
+
+        productService.releaseReservation(reservation.getIdReservation());
+
+        assertThrows(IllegalArgumentException.class, () -> productService.releaseReservation(reservation.getIdReservation()));
+        assertThrows(IllegalArgumentException.class, () -> productService.commitReservation(reservation.getIdReservation()));
+        assertEquals(ReservationStatus.RELEASED,
+                productReservationRepository.findById(reservation.getIdReservation()).orElseThrow().getStatus());
+        assertEquals(5, productRepository.findById(product.getIdProduct()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void throughputWithThreads() throws Exception {
+        // not asserted: the ratio depends on the machine, the log shows how the atomic update scales
+        for (int threads : new int[]{1, 4, 8}) {
+            Product product = productRepository.save(product(ATTEMPTS));
+            long start = System.nanoTime();
+            int reserved = reserveConcurrently(threads, () -> List.of(new ReservationLine(product.getIdProduct(), 1)));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(ATTEMPTS, reserved);
+            log.info("{} threads: {} reservations/s", threads, Math.round(reserved / seconds));
+        }
+    }
+
+    private int reserveConcurrently(int threads, Callable<List<ReservationLine>> lines) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        productService.reserveProducts(lines.call());
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    reserved++;
+                }
+            }
+            return reserved;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Product product(int quantity) {
+        Product product = new Product();
+        product.setTitle("item");
+        product.setPrice(1f);
+        product.setQuantity(quantity);
+        product.setCategory(ProductCategory.BOOKS);
+        return product;
+    }
+}
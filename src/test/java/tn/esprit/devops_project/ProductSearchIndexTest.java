@@ -0,0 +1,131 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.devops_project.dto.ProductSearchRow;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.services.ProductSearchIndex;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex index;
+
+    private final Stock shop = new Stock(1L, "shop", null);
+    private final Stock depot = new Stock(2L, "depot", null);
+
+    @BeforeEach
+    void setUp() {
+        index.index(product(1L, "Java Programming", 40f, ProductCategory.BOOKS, shop));
+        index.index(product(2L, "Javascript for kids", 25f, ProductCategory.BOOKS, depot));
+        index.index(product(3L, "USB Java cup", 8f, ProductCategory.CLOTHING, shop));
+        index.index(product(4L, "Café Phone charger", 15f, ProductCategory.ELECTRONICS, shop));
+    }
+
+    @Test
+    void testRanksWholeWordsBeforePrefixes() {
+        List<Long> ids = index.search("java", null, null, null, null, 10);
+
+        assertEquals(List.of(3L, 1L, 2L), ids, "Whole-word matches first, shorter titles first");
+    }
+
+    @Test
+    void testSubstringAndAccents() {
+        assertEquals(List.of(1L), index.search("gramm", null, null, null, null, 10));
+        assertEquals(List.of(4L), index.search("cafe", null, null, null, null, 10));
+        assertEquals(List.of(2L), index.search("script kid", null, null, null, null, 10));
+    }
+
+    @Test
+    void testFiltersIntersect() {
+        assertEquals(List.of(1L), index.search("java", ProductCategory.BOOKS, 1L, null, null, 10));
+        assertEquals(List.of(3L, 4L), index.search(null, null, 1L, null, 20f, 10));
+        assertEquals(List.of(), index.search("java", ProductCategory.ELECTRONICS, null, null, null, 10));
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.index(product(3L, "USB lamp", 8f, ProductCategory.ELECTRONICS, shop));
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.search("java", null, null, null, null, 10));
+        assertEquals(List.of(3L), index.search("lamp", ProductCategory.ELECTRONICS, null, null, null, 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRebuildReplacesContent() {
+        when(productRepository.retrieveSearchRows()).thenReturn(List.of());
+
+        index.rebuild();
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("java", null, null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void testRebuildKeepsWritesMadeWhileReading() {
+        when(productRepository.retrieveSearchRows()).thenAnswer(invocation -> {
+            // committed after the rows were read
+            index.index(product(5L, "Desk lamp", 30f, ProductCategory.ELECTRONICS, depot));
+            index.remove(2L);
+            return List.of(row(1L, "Java Programming", 40f, ProductCategory.BOOKS, 1L),
+                    row(2L, "Javascript for kids", 25f, ProductCategory.BOOKS, 2L));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("java", null, null, null, null, 10));
+        assertEquals(List.of(5L), index.search("lamp", null, 2L, null, null, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testWritesWaitForTheTransactionToCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(product(5L, "Desk lamp", 30f, ProductCategory.ELECTRONICS, depot));
+            index.remove(1L);
+
+            assertEquals(4, index.size(), "Nothing should change before the commit");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(5L), index.search("lamp", null, null, null, null, 10));
+        assertEquals(List.of(3L, 2L), index.search("java", null, null, null, null, 10));
+    }
+
+    private static Product product(Long id, String title, float price, ProductCategory category, Stock stock) {
+        return new Product(id, title, price, 1, category, stock);
+    }
+
+    private static ProductSearchRow row(Long id, String title, float price, ProductCategory category, Long stockId) {
+        return new ProductSearchRow() {
+            public Long getIdProduct() { return id; }
+            public String getTitle() { return title; }
+            public ProductCategory getCategory() { return category; }
+            public Long getStockId() { return stockId; }
+            public Float getPrice() { return price; }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.devops_project.dto.CategoryValuation;
+import tn.esprit.devops_project.dto.OperatorWorkload;
+import tn.esprit.devops_project.dto.StockValuation;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.Operator;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.OperatorRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.StockRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the aggregate/projection repository queries against an embedded database,
+ * they cannot be checked with mocks.
+ */
+@DataJpaTest
+class ProjectionQueriesTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private OperatorRepository operatorRepository;
+
+    @Test
+    void testStockValuations() {
+        Stock stock = stockRepository.save(new Stock(0, "main", null));
+        Stock empty = stockRepository.save(new Stock(0, "empty", null));
+        productRepository.save(product("book", 10f, 3, ProductCategory.BOOKS, stock));
+        productRepository.save(product("novel", 5f, 2, ProductCategory.BOOKS, stock));
+        productRepository.save(product("phone", 100f, 1, ProductCategory.ELECTRONICS, stock));
+
+        List<StockValuation> valuations = stockRepository.retrieveStockValuations();
+        StockValuation main = stockRepository.retrieveStockValuation(stock.getIdStock());
+
+        assertEquals(2, valuations.size(), "Every stock should be listed, even without products");
+        assertEquals(3L, main.getProductCount());
+        assertEquals(6L, main.getTotalUnits());
+        assertEquals(140.0, main.getTotalValue(), 0.001);
+        assertEquals(0L, stockRepository.retrieveStockValuation(empty.getIdStock()).getTotalUnits());
+    }
+
+    @Test
+    void testCategoryValuations() {
+        Stock stock = stockRepository.save(new Stock(0, "main", null));
+        productRepository.save(product("book", 10f, 3, ProductCategory.BOOKS, stock));
+        productRepository.save(product("novel", 5f, 2, ProductCategory.BOOKS, stock));
+        productRepository.save(product("phone", 100f, 1, ProductCategory.ELECTRONICS, null));
+
+        List<CategoryValuation> inStock = productRepository.retrieveCategoryValuations(stock.getIdStock());
+        List<CategoryValuation> all = productRepository.retrieveCategoryValuations();
+
+        assertEquals(1, inStock.size(), "Only the categories held by the stock should be listed");
+        assertEquals(40.0, inStock.get(0).getTotalValue(), 0.001);
+        assertEquals(2, all.size());
+    }
+
+    @Test
+    void testOperatorWorkloads() {
+        Invoice open = invoiceRepository.save(invoice(100f, false));
+        Invoice openToo = invoiceRepository.save(invoice(50f, false));
+        Invoice archived = invoiceRepository.save(invoice(30f, true));
+        Operator busy = operatorRepository.save(new Operator(null, "busy", null, null, Set.of(open, openToo, archived)));
+        Operator light = operatorRepository.save(new Operator(null, "light", null, null, Set.of(invoiceRepository.save(invoice(500f, false)))));
+        Operator idle = operatorRepository.save(new Operator(null, "idle", null, null, Set.of()));
+
+        OperatorWorkload workload = operatorRepository.retrieveWorkload(busy.getIdOperateur());
+        List<OperatorWorkload> leastLoaded = operatorRepository.retrieveLeastLoaded(PageRequest.of(0, 3));
+
+        assertEquals(3L, workload.getAssignedCount());
+        assertEquals(2L, workload.getOpenCount());
+        assertEquals(1L, workload.getArchivedCount());
+        assertEquals(180.0, workload.getTotalAmount(), 0.001);
+        assertEquals(150.0, workload.getOpenAmount(), 0.001);
+        assertEquals(0L, operatorRepository.retrieveWorkload(idle.getIdOperateur()).getAssignedCount());
+        assertEquals(List.of(idle.getIdOperateur(), light.getIdOperateur(), busy.getIdOperateur()),
+                leastLoaded.stream().map(OperatorWorkload::getIdOperateur).collect(Collectors.toList()));
+        assertEquals(3, operatorRepository.retrieveWorkloads().size());
+    }
+
+    static Invoice invoice(float amount, boolean archived) {
+        Invoice invoice = new Invoice();
+        invoice.setAmountInvoice(amount);
+        invoice.setArchived(archived);
+        return invoice;
+    }
+
+    static Product product(String title, float price, int quantity, ProductCategory category, Stock stock) {
+        Product product = new Product();
+        product.setTitle(title);
+        product.setPrice(price);
+        product.setQuantity(quantity);
+        product.setCategory(category);
+        product.setStock(stock);
+        return product;
+    }
+}
@@ -0,0 +1,270 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.esprit.devops_project.entities.ProductCategory;
+import tn.esprit.devops_project.entities.ReservationStatus;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.OperatorRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.ProductReservationRepository;
+import tn.esprit.devops_project.repositories.StockRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+
+import java.lang.reflect.Method;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs every Spring Data query method on the migrated H2 schema, records the SQL Hibernate sends and
+ * checks its EXPLAIN plan: a query that reads a table without an index condition fails the test, unless
+ * it is one of the few that read every row by design. JDBC repositories only insert, or upsert and
+ * delete by a unique key, and are not covered.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "tn.esprit.devops_project.QueryPlanTest$Recorder")
+class QueryPlanTest {
+
+    // full listings, rebuilds of in-memory indexes and aggregates over every row
+    private static final Set<String> FULL_READS = Set.of(
+            "InvoiceRepository.findAll()",
+            "InvoiceRepository.retrieveDailyInvoiceAmounts()",
+            "OperatorRepository.retrieveWorkloads()",
+            "OperatorRepository.retrieveLeastLoaded(Pageable)",
+            "ProductRepository.retrieveCategoryValuations()",
+            "ProductRepository.retrieveSearchRows()",
+            "StockRepository.retrieveStockValuations()",
+            "SupplierRepository.retrieveCodes()");
+
+    // H2 comments every table of a plan with the index it reads and the condition used on it,
+    // a table scan, or an index read without a condition, has no condition
+    private static final Pattern SCAN = Pattern.compile("/\\* (PUBLIC\\.[^:*]+) \\*/");
+
+    private static final Date START = Date.valueOf("2023-03-01");
+    private static final Date END = Date.valueOf("2023-04-01");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Autowired
+    private OperatorRepository operatorRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReservationRepository productReservationRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    private long stockId;
+    private long supplierId;
+    private long productId;
+    private long invoiceId;
+    private long operatorId;
+    private long reservationId;
+
+    @BeforeEach
+    void seed() {
+        // enough rows for the optimizer to prefer an index over reading a handful of rows
+        jdbcTemplate.update("insert into stock (title) select 'stock ' || x from system_range(1, 20)");
+        jdbcTemplate.update("insert into supplier (code, label, supplier_category)"
+                + " select 'SUP-' || x, 'supplier ' || x, 'ORDINAIRE' from system_range(1, 200)");
+        stockId = jdbcTemplate.queryForObject("select min(id_stock) from stock", Long.class);
+        supplierId = jdbcTemplate.queryForObject("select min(id_supplier) from supplier", Long.class);
+        jdbcTemplate.update("insert into product (title, price, quantity, category, stock_id_stock)"
+                + " select 'product ' || x, mod(x, 500), mod(x, 200), case mod(x, 3) when 0 then 'BOOKS'"
+                + " when 1 then 'CLOTHING' else 'ELECTRONICS' end, ? + mod(x, 20) from system_range(1, 3000)", stockId);
+        productId = jdbcTemplate.queryForObject("select min(id_product) from product", Long.class);
+        jdbcTemplate.update("insert into invoice (amount_discount, amount_invoice, archived, date_creation_invoice,"
+                + " date_last_modification_invoice, supplier_id_supplier) select mod(x, 50), mod(x, 5000), mod(x, 10) = 0,"
+                + " dateadd('DAY', mod(x, 730), date '2023-01-01'), date '2023-01-01', ? + mod(x, 200)"
+                + " from system_range(1, 5000)", supplierId);
+        invoiceId = jdbcTemplate.queryForObject("select min(id_invoice) from invoice", Long.class);
+        jdbcTemplate.update("insert into invoice_detail (quantity, price, invoice_id_invoice, product_id_product)"
+                + " select 1, 10, ? + mod(x, 5000), ? + mod(x, 3000) from system_range(1, 10000)", invoiceId, productId);
+        jdbcTemplate.update("insert into invoice_daily_total (invoice_date, supplier_id, invoice_count, total_cents)"
+                + " select dateadd('DAY', mod(x, 730), date '2023-01-01'), ? + x / 730, 1, 100 from system_range(1, 5000)",
+                supplierId);
+        jdbcTemplate.update("insert into operator (fname, lname, password) select 'op', 'erator ' || x, 'secret'"
+                + " from system_range(1, 20)");
+        operatorId = jdbcTemplate.queryForObject("select min(id_operateur) from operator", Long.class);
+        jdbcTemplate.update("insert into operator_invoices (operator_id_operateur, invoices_id_invoice)"
+                + " select ? + mod(x, 20), ? + x from system_range(0, 4999, 3)", operatorId, invoiceId);
+        jdbcTemplate.update("insert into product_reservation (date_creation, status)"
+                + " select current_timestamp, 'RESERVED' from system_range(1, 500)");
+        reservationId = jdbcTemplate.queryForObject("select min(id_reservation) from product_reservation", Long.class);
+        Recorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void everyQueryMethodIsChecked() {
+        Set<String> checked = queries().keySet();
+        Repositories repositories = new Repositories(applicationContext);
+        Set<String> unchecked = new TreeSet<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                String key = key(information.getRepositoryInterface(), method);
+                if (!checked.contains(key)) {
+                    unchecked.add(key);
+                }
+            }
+        }
+
+        assertTrue(unchecked.isEmpty(), "Add these query methods to QueryPlanTest.queries(): " + unchecked);
+    }
+
+    @Test
+    void queriesAreServedByIndexes() {
+        Map<String, List<String>> scans = new LinkedHashMap<>();
+        queries().forEach((key, query) -> {
+            // nothing may be answered from the persistence context
+            entityManager.clear();
+            Recorder.STATEMENTS.clear();
+            query.run();
+            assertFalse(Recorder.STATEMENTS.isEmpty(), key + " did not reach the database");
+            if (FULL_READS.contains(key)) {
+                return;
+            }
+            for (String sql : Recorder.STATEMENTS) {
+                String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+                Matcher matcher = SCAN.matcher(plan);
+                while (matcher.find()) {
+                    scans.computeIfAbsent(key, ignored -> new ArrayList<>()).add(matcher.group(1) + " in " + plan);
+                }
+            }
+        });
+
+        assertTrue(scans.isEmpty(), "Queries reading whole tables: " + scans);
+    }
+
+    private Map<String, Runnable> queries() {
+        List<Long> invoiceIds = List.of(invoiceId, invoiceId + 1);
+        List<Long> productIds = List.of(productId, productId + 1);
+        List<Boolean> open = List.of(false);
+        PageRequest page = PageRequest.of(0, 20);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("InvoiceRepository.findAll()", invoiceRepository::findAll);
+        queries.put("InvoiceRepository.retrieveInvoiceWithDetails(Long)",
+                () -> invoiceRepository.retrieveInvoiceWithDetails(invoiceId));
+        queries.put("InvoiceRepository.retrieveInvoicesWithDetails(Collection)",
+                () -> invoiceRepository.retrieveInvoicesWithDetails(invoiceIds));
+        queries.put("InvoiceRepository.retrieveInvoicesBySupplier(Supplier)",
+                () -> invoiceRepository.retrieveInvoicesBySupplier(supplierRepository.getReferenceById(supplierId)));
+        queries.put("InvoiceRepository.retrieveSupplierInvoiceIds(Long,Collection,Date,Date,Pageable)",
+                () -> invoiceRepository.retrieveSupplierInvoiceIds(supplierId, open, START, END, page));
+        queries.put("InvoiceRepository.retrieveSupplierInvoiceSummary(Long,Collection,Date,Date)",
+                () -> invoiceRepository.retrieveSupplierInvoiceSummary(supplierId, open, START, END));
+        queries.put("InvoiceRepository.retrieveDailyInvoiceAmounts()", invoiceRepository::retrieveDailyInvoiceAmounts);
+        queries.put("InvoiceRepository.retrieveInvoiceIdsAfter(Long,Pageable)",
+                () -> invoiceRepository.retrieveInvoiceIdsAfter(invoiceId, page));
+        queries.put("InvoiceRepository.streamInvoicesBetweenDates(Date,Date)", () -> {
+            try (Stream<?> rows = invoiceRepository.streamInvoicesBetweenDates(START, END)) {
+                rows.count();
+            }
+        });
+        queries.put("InvoiceRepository.retrieveScoreRowsAfter(Long,Pageable)",
+                () -> invoiceRepository.retrieveScoreRowsAfter(invoiceId, page));
+        queries.put("InvoiceRepository.retrieveOpenInvoiceRows(Collection)",
+                () -> invoiceRepository.retrieveOpenInvoiceRows(invoiceIds));
+        queries.put("InvoiceRepository.retrieveOpenInvoiceRowsBySupplier(Long,Long,Pageable)",
+                () -> invoiceRepository.retrieveOpenInvoiceRowsBySupplier(supplierId, 0L, page));
+        queries.put("InvoiceRepository.retrieveOpenInvoiceRowsBetweenDates(Date,Date,Long,Pageable)",
+                () -> invoiceRepository.retrieveOpenInvoiceRowsBetweenDates(START, END, 0L, page));
+        queries.put("InvoiceRepository.archiveInvoices(Collection,Date)",
+                () -> invoiceRepository.archiveInvoices(invoiceIds, END));
+        queries.put("InvoiceRepository.retrieveExistingIds(Collection)", () -> invoiceRepository.retrieveExistingIds(invoiceIds));
+        queries.put("InvoiceDailyTotalRepository.sumCentsBetweenDates(Date,Date)",
+                () -> invoiceDailyTotalRepository.sumCentsBetweenDates(START, END));
+        queries.put("InvoiceDailyTotalRepository.sumSupplierCentsBetweenDates(Long,Date,Date)",
+                () -> invoiceDailyTotalRepository.sumSupplierCentsBetweenDates(supplierId, START, END));
+        queries.put("OperatorRepository.retrieveWorkloads()", operatorRepository::retrieveWorkloads);
+        queries.put("OperatorRepository.retrieveWorkload(Long)",
+                () -> operatorRepository.retrieveWorkload(operatorId));
+        queries.put("OperatorRepository.retrieveLeastLoaded(Pageable)", () -> operatorRepository.retrieveLeastLoaded(page));
+        queries.put("OperatorRepository.retrieveExistingIds(Collection)",
+                () -> operatorRepository.retrieveExistingIds(List.of(operatorId)));
+        queries.put("ProductRepository.findByCategory(ProductCategory)",
+                () -> productRepository.findByCategory(ProductCategory.BOOKS));
+        queries.put("ProductRepository.findByStockIdStock(Long)", () -> productRepository.findByStockIdStock(stockId));
+        queries.put("ProductRepository.retrieveCategoryValuations()", productRepository::retrieveCategoryValuations);
+        queries.put("ProductRepository.retrieveCategoryValuations(Long)",
+                () -> productRepository.retrieveCategoryValuations(stockId));
+        queries.put("ProductRepository.decrementQuantity(Long,int)", () -> productRepository.decrementQuantity(productId, 1));
+        queries.put("ProductRepository.incrementQuantity(Long,int)", () -> productRepository.incrementQuantity(productId, 1));
+        queries.put("ProductRepository.retrieveSearchRows()", productRepository::retrieveSearchRows);
+        queries.put("ProductRepository.retrieveStockLevels(Collection)", () -> productRepository.retrieveStockLevels(productIds));
+        queries.put("ProductRepository.retrieveStockLevelsByCategory(ProductCategory)",
+                () -> productRepository.retrieveStockLevelsByCategory(ProductCategory.BOOKS));
+        queries.put("ProductRepository.retrieveStockLevelsAtMost(int)", () -> productRepository.retrieveStockLevelsAtMost(5));
+        queries.put("ProductRepository.retrieveExistingIds(Collection)", () -> productRepository.retrieveExistingIds(productIds));
+        queries.put("ProductReservationRepository.updateStatus(Long,ReservationStatus,ReservationStatus)",
+                () -> productReservationRepository.updateStatus(reservationId, ReservationStatus.RESERVED, ReservationStatus.RELEASED));
+        queries.put("StockRepository.retrieveStockValuations()", stockRepository::retrieveStockValuations);
+        queries.put("StockRepository.retrieveStockValuation(Long)", () -> stockRepository.retrieveStockValuation(stockId));
+        queries.put("SupplierRepository.findByCode(String)", () -> supplierRepository.findByCode("SUP-1"));
+        queries.put("SupplierRepository.findByCodeIn(Collection)",
+                () -> supplierRepository.findByCodeIn(List.of("SUP-1", "SUP-2")));
+        queries.put("SupplierRepository.retrieveCodes()", supplierRepository::retrieveCodes);
+        queries.put("SupplierRepository.retrieveExistingIds(Collection)",
+                () -> supplierRepository.retrieveExistingIds(List.of(supplierId)));
+        return queries;
+    }
+
+    private static String key(Class<?> repository, Method method) {
+        return repository.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.esprit.devops_project.config.ReadReplicaProperties;
+import tn.esprit.devops_project.config.ReplicaRoutingDataSource;
+import tn.esprit.devops_project.services.Iservices.ISupplierService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "reference-cache.entities.supplier.enabled=false",
+        "read-replica.enabled=true",
+        "read-replica.nodes[0].url=jdbc:h2:mem:replica_a;DB_CLOSE_DELAY=-1",
+        "read-replica.nodes[1].url=jdbc:h2:mem:replica_b;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ISupplierService supplierService;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+
+    @BeforeEach
+    void copySchemaToReplicas() {
+        primary = new JdbcTemplate(routingDataSource.getResolvedDefaultDataSource());
+        primary.update("delete from operator_invoices");
+        primary.update("delete from invoice");
+        primary.update("delete from operator");
+        primary.update("delete from supplier");
+        replicas.clear();
+        List<String> schema = primary.queryForList("script nodata", String.class);
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+            jdbcTemplate.execute("drop all objects");
+            schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(jdbcTemplate::execute);
+            replicas.add(jdbcTemplate);
+        }
+    }
+
+    @Test
+    void readsAreSpreadAcrossReplicasAndWritesGoToThePrimary() throws Exception {
+        replicas.get(0).update("insert into supplier (code, label) values ('A', 'replica a')");
+        replicas.get(1).update("insert into supplier (code, label) values ('B', 'replica b')");
+
+        Set<String> labels = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            String suppliers = mockMvc.perform(get("/supplier")).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List.of("replica a", "replica b").stream().filter(suppliers::contains).forEach(labels::add);
+        }
+        assertEquals(Set.of("replica a", "replica b"), labels);
+
+        mockMvc.perform(post("/supplier").contentType(MediaType.APPLICATION_JSON).content("{\"code\":\"P\",\"label\":\"primary\"}"))
+                .andExpect(status().isOk());
+        assertEquals(1, primary.queryForObject("select count(*) from supplier", Integer.class));
+        assertEquals(1, replicas.get(0).queryForObject("select count(*) from supplier", Integer.class));
+
+        // the replicas have not seen the rename that released P yet
+        Long idSupplier = primary.queryForObject("select id_supplier from supplier", Long.class);
+        for (JdbcTemplate replica : replicas) {
+            replica.update("delete from supplier");
+            replica.update("insert into supplier (id_supplier, code, label) values (?, 'P', 'primary')", idSupplier);
+        }
+        primary.update("update supplier set code = 'P2' where id_supplier = ?", idSupplier);
+        mockMvc.perform(post("/supplier").contentType(MediaType.APPLICATION_JSON).content("{\"code\":\"P\"}"))
+                .andExpect(status().isOk());
+        assertEquals(2, primary.queryForObject("select count(*) from supplier", Integer.class),
+                "The code check of a write should read the primary");
+    }
+
+    @Test
+    void writesAfterReadsInTheSameRequestGoToThePrimary() throws Exception {
+        for (JdbcTemplate database : all()) {
+            database.update("insert into operator (id_operateur, fname) values (1, 'op')");
+            database.update("insert into invoice (id_invoice, amount_discount, amount_invoice, archived) values (1, 0, 10, false)");
+        }
+
+        mockMvc.perform(put("/invoice/operator/1/1")).andExpect(status().isOk());
+
+        assertEquals(1, primary.queryForObject("select count(*) from operator_invoices", Integer.class));
+        for (JdbcTemplate replica : replicas) {
+            assertEquals(0, replica.queryForObject("select count(*) from operator_invoices", Integer.class),
+                    "The assignment read the invoice and operator first, then must write to the primary");
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void readsFallBackToThePrimaryWhenReplicasAreDown() {
+        primary.update("insert into supplier (code, label) values ('P', 'primary')");
+        routingDataSource.getReplicas().forEach(replica -> ((HikariDataSource) replica.getDataSource()).close());
+
+        assertEquals("primary", supplierService.retrieveAllSuppliers().get(0).getLabel());
+        routingDataSource.checkHealth();
+        assertTrue(routingDataSource.getReplicas().stream().noneMatch(ReplicaRoutingDataSource.Replica::isHealthy));
+    }
+
+    @Test
+    void openInViewIsOffWithReplicas() {
+        assertFalse(environment.getProperty("spring.jpa.open-in-view", Boolean.class, true),
+                "A request-scoped session would keep writing to the replica its first read used");
+    }
+
+    @Test
+    void leastLoadedPicksTheReplicaWithFewestActiveConnections() throws Exception {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            pools.put(replica.getName(), replica.getDataSource());
+        }
+        ReplicaRoutingDataSource leastLoaded = new ReplicaRoutingDataSource(routingDataSource.getResolvedDefaultDataSource(),
+                pools, ReadReplicaProperties.Selection.LEAST_LOADED, Duration.ofSeconds(1));
+        leastLoaded.afterPropertiesSet();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection busy = leastLoaded.getConnection();
+             Connection next = leastLoaded.getConnection()) {
+            assertTrue(busy.getMetaData().getURL().contains("replica_a"));
+            assertTrue(next.getMetaData().getURL().contains("replica_b"));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private List<JdbcTemplate> all() {
+        List<JdbcTemplate> databases = new ArrayList<>(replicas);
+        databases.add(primary);
+        return databases;
+    }
+}
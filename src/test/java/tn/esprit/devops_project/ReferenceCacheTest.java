@@ -0,0 +1,102 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import tn.esprit.devops_project.entities.Operator;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.OperatorRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.Iservices.IOperatorService;
+import tn.esprit.devops_project.services.Iservices.ISupplierService;
+
+import javax.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "reference-cache.entities.operator.enabled=false"})
+@AutoConfigureTestDatabase
+class ReferenceCacheTest {
+
+    @Autowired
+    private ISupplierService supplierService;
+
+    @Autowired
+    private IOperatorService operatorService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private OperatorRepository operatorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        supplierRepository.deleteAll();
+        operatorRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        Long id = supplierService.addSupplier(supplier("first")).getIdSupplier();
+        // identity inserts are not put in the cache, the first read loads it
+        supplierService.retrieveSupplier(id);
+        statistics().clear();
+
+        supplierService.retrieveSupplier(id);
+        supplierService.retrieveSupplier(id);
+
+        assertEquals(0, statistics().getPrepareStatementCount(), "Cached supplier should not be read from the database");
+        assertEquals(2, statistics().getSecondLevelCacheHitCount());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "Supplier").tag("result", "hit").functionCounter().count() >= 2,
+                "Hits should be published as metrics");
+    }
+
+    @Test
+    void writesInvalidateTheCache() {
+        Supplier supplier = supplierService.addSupplier(supplier("first"));
+        supplierService.retrieveSupplier(supplier.getIdSupplier());
+
+        supplier.setLabel("second");
+        supplierService.updateSupplier(supplier);
+        assertEquals("second", supplierService.retrieveSupplier(supplier.getIdSupplier()).getLabel());
+
+        supplierService.deleteSupplier(supplier.getIdSupplier());
+        assertThrows(IllegalArgumentException.class, () -> supplierService.retrieveSupplier(supplier.getIdSupplier()));
+    }
+
+    @Test
+    void disabledEntitiesAreNotCached() {
+        Long id = operatorService.addOperator(new Operator()).getIdOperateur();
+        statistics().clear();
+
+        operatorService.retrieveOperator(id);
+        operatorService.retrieveOperator(id);
+
+        assertEquals(2, statistics().getPrepareStatementCount(), "Operator cache is switched off");
+        assertFalse(entityManagerFactory.getCache().contains(Operator.class, id));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Supplier supplier(String label) {
+        Supplier supplier = new Supplier();
+        supplier.setLabel(label);
+        return supplier;
+    }
+}
@@ -0,0 +1,114 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import tn.esprit.devops_project.dto.ExportFormat;
+import tn.esprit.devops_project.entities.Invoice;
+import tn.esprit.devops_project.entities.Product;
+import tn.esprit.devops_project.entities.Stock;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.ProductRepository;
+import tn.esprit.devops_project.repositories.StockRepository;
+import tn.esprit.devops_project.services.Iservices.IInvoiceExportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+class ResponseFormatTest {
+
+    private static final int PRODUCTS = 100;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private IInvoiceExportService invoiceExportService;
+
+    @BeforeEach
+    void seed() {
+        if (productRepository.count() >= PRODUCTS) {
+            return;
+        }
+        Stock stock = new Stock();
+        stock.setTitle("formats");
+        stock = stockRepository.save(stock);
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.save(new Product(null, "product " + i, i, i, null, stock));
+        }
+    }
+
+    @Test
+    void productListIsNegotiatedAsSmileOrCbor() throws Exception {
+        assertEquals(PRODUCTS, read(get("application/x-jackson-smile", null), new ObjectMapper(new SmileFactory())).size());
+        assertEquals(PRODUCTS, read(get("application/cbor", null), new ObjectMapper(new CBORFactory())).size());
+
+        ResponseEntity<byte[]> json = get("*/*", null);
+        assertTrue(json.getHeaders().getContentType().toString().startsWith("application/json"));
+        assertEquals(PRODUCTS, read(json, new ObjectMapper()).size());
+    }
+
+    @Test
+    void largeResponsesAreGzipped() throws Exception {
+        ResponseEntity<byte[]> response = get("application/json", "gzip");
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        JsonNode products = new ObjectMapper().readTree(new GZIPInputStream(new ByteArrayInputStream(response.getBody())));
+        assertEquals(PRODUCTS, products.size());
+    }
+
+    @Test
+    void exportStreamsOneBinaryArray() throws Exception {
+        Date today = new Date();
+        invoiceRepository.save(new Invoice(null, 1f, 10f, today, today, false, null, null));
+        invoiceRepository.save(new Invoice(null, 2f, 20f, today, today, false, null, null));
+
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+        long exported = invoiceExportService.exportInvoices(today, today, ExportFormat.CBOR, cbor);
+
+        JsonNode rows = new ObjectMapper(new CBORFactory()).readTree(cbor.toByteArray());
+        assertEquals(exported, rows.size());
+        assertTrue(rows.get(0).has("idInvoice"));
+    }
+
+    private ResponseEntity<byte[]> get(String accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        ResponseEntity<byte[]> response = restTemplate.exchange("/product", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(200, response.getStatusCodeValue());
+        return response;
+    }
+
+    private static JsonNode read(ResponseEntity<byte[]> response, ObjectMapper mapper) throws Exception {
+        return mapper.readTree(response.getBody());
+    }
+}
@@ -0,0 +1,98 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.Iservices.ISupplierService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class SupplierCodeLookupTest {
+
+    @Autowired
+    private ISupplierService supplierService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @AfterEach
+    void cleanUp() {
+        supplierService.retrieveAllSuppliers().forEach(supplier -> supplierService.deleteSupplier(supplier.getIdSupplier()));
+    }
+
+    @Test
+    void codeLookupFollowsUpdatesAndDeletes() {
+        Supplier supplier = supplierService.addSupplier(supplier("ACME"));
+        assertEquals(supplier.getIdSupplier(), supplierService.retrieveSupplierByCode("ACME").getIdSupplier());
+
+        supplier.setCode("ACME-2");
+        supplierService.updateSupplier(supplier);
+        assertThrows(IllegalArgumentException.class, () -> supplierService.retrieveSupplierByCode("ACME"));
+        assertEquals(supplier.getIdSupplier(), supplierService.retrieveSupplierByCode("ACME-2").getIdSupplier());
+
+        supplierService.deleteSupplier(supplier.getIdSupplier());
+        assertThrows(IllegalArgumentException.class, () -> supplierService.retrieveSupplierByCode("ACME-2"));
+    }
+
+    @Test
+    void batchLookupFallsBackToTheDatabase() {
+        supplierService.addSupplier(supplier("A"));
+        supplierService.addSupplier(supplier("B"));
+        // written behind the service's back, not in the in-memory map yet
+        supplierRepository.save(supplier("C"));
+
+        List<String> codes = supplierService.retrieveSuppliersByCodes(List.of("A", "C", "missing")).stream()
+                .map(Supplier::getCode).sorted().collect(Collectors.toList());
+
+        assertEquals(List.of("A", "C"), codes);
+        assertEquals("C", supplierService.retrieveSupplierByCode("C").getCode());
+    }
+
+    @Test
+    void staleIndexEntriesAreCheckedAgainstTheDatabase() {
+        Supplier reused = reuseCodeBehindTheService("X");
+        assertEquals(reused.getIdSupplier(), supplierService.retrieveSupplierByCode("X").getIdSupplier());
+
+        reused = reuseCodeBehindTheService("Y");
+        assertEquals(List.of(reused.getIdSupplier()), supplierService.retrieveSuppliersByCodes(List.of("Y")).stream()
+                .map(Supplier::getIdSupplier).collect(Collectors.toList()));
+
+        Supplier renamed = supplierService.addSupplier(supplier("Z"));
+        renamed.setCode("Z-renamed");
+        supplierRepository.save(renamed);
+        assertDoesNotThrow(() -> supplierService.addSupplier(supplier("Z")), "A code released by a rename is free again");
+    }
+
+    @Test
+    void codesAreUnique() {
+        supplierService.addSupplier(supplier("DUP"));
+
+        assertThrows(IllegalArgumentException.class, () -> supplierService.addSupplier(supplier("DUP")));
+        assertThrows(DataIntegrityViolationException.class, () -> supplierRepository.save(supplier("DUP")),
+                "The database should reject duplicates written behind the service");
+    }
+
+    // another instance renames the supplier and gives its code to a new one
+    private Supplier reuseCodeBehindTheService(String code) {
+        Supplier renamed = supplierService.addSupplier(supplier(code));
+        renamed.setCode(code + "-renamed");
+        supplierRepository.save(renamed);
+        return supplierRepository.save(supplier(code));
+    }
+
+    private static Supplier supplier(String code) {
+        Supplier supplier = new Supplier();
+        supplier.setCode(code);
+        return supplier;
+    }
+}
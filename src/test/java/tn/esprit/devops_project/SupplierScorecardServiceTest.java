@@ -0,0 +1,119 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tn.esprit.devops_project.dto.InvoiceScoreRow;
+import tn.esprit.devops_project.dto.SupplierScorecard;
+import tn.esprit.devops_project.dto.SupplierScorecardSnapshot;
+import tn.esprit.devops_project.entities.Supplier;
+import tn.esprit.devops_project.repositories.InvoiceRepository;
+import tn.esprit.devops_project.repositories.SupplierRepository;
+import tn.esprit.devops_project.services.SupplierScorecardService;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class SupplierScorecardServiceTest {
+
+    private final InvoiceRepository invoiceRepository = mock(InvoiceRepository.class);
+    private final SupplierRepository supplierRepository = mock(SupplierRepository.class);
+    private SupplierScorecardService scorecardService;
+
+    @BeforeEach
+    void setUp() {
+        scorecardService = new SupplierScorecardService(invoiceRepository, supplierRepository, 2, 3, 12);
+        when(supplierRepository.findAll()).thenReturn(List.of(supplier(1L), supplier(2L), supplier(3L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scorecardService.shutdown();
+    }
+
+    @Test
+    void testAggregatesEverySupplierAcrossChunks() {
+        LocalDate today = LocalDate.now();
+        // two chunks of three rows, then an empty one
+        when(invoiceRepository.retrieveScoreRowsAfter(eq(0L), any())).thenReturn(List.of(
+                row(1L, 1L, 100, 10, false, today),
+                row(2L, 2L, 50, 0, true, today),
+                row(3L, 1L, 300, 30, true, today.minusMonths(1))));
+        when(invoiceRepository.retrieveScoreRowsAfter(eq(3L), any())).thenReturn(List.of(
+                row(4L, null, 999, 0, false, today),
+                row(5L, 1L, 200, 0, false, today.minusYears(3)),
+                row(6L, 2L, 150, 15, false, today)));
+        when(invoiceRepository.retrieveScoreRowsAfter(eq(6L), any())).thenReturn(List.of());
+
+        SupplierScorecardSnapshot snapshot = scorecardService.refresh();
+
+        SupplierScorecard first = snapshot.getScorecards().get(0);
+        assertEquals(3, snapshot.getScorecards().size(), "Suppliers without invoices should have a scorecard");
+        assertEquals(3, first.getInvoiceCount());
+        assertEquals(600, first.getTotalAmount(), 0.001);
+        assertEquals(200, first.getAverageAmount(), 0.001);
+        assertEquals(40.0 / 600, first.getDiscountRatio(), 0.0001);
+        assertEquals(1.0 / 3, first.getArchiveRate(), 0.0001);
+        assertEquals(2, first.getTrend().size(), "Months older than the trend window should be left out");
+        assertEquals(YearMonth.from(today).toString(), first.getTrend().get(1).getMonth());
+        assertEquals(200, snapshot.getScorecards().get(1).getTotalAmount(), 0.001);
+        assertEquals(0, snapshot.getScorecards().get(2).getInvoiceCount());
+    }
+
+    @Test
+    void testSnapshotIsCachedUntilRefreshed() {
+        when(invoiceRepository.retrieveScoreRowsAfter(eq(0L), any())).thenReturn(List.of());
+
+        SupplierScorecardSnapshot snapshot = scorecardService.getSnapshot();
+
+        assertSame(snapshot, scorecardService.getSnapshot());
+        assertNotSame(snapshot, scorecardService.refresh());
+    }
+
+    @Test
+    void testConcurrentFirstUseComputesOnce() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(invoiceRepository.retrieveScoreRowsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<SupplierScorecardSnapshot> first = callers.submit(scorecardService::getSnapshot);
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            Future<SupplierScorecardSnapshot> second = callers.submit(scorecardService::getSnapshot);
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            verify(invoiceRepository, times(1)).retrieveScoreRowsAfter(eq(0L), any());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static InvoiceScoreRow row(Long id, Long supplierId, float amount, float discount, boolean archived, LocalDate date) {
+        return new InvoiceScoreRow(id, supplierId, amount, discount, archived, java.sql.Date.valueOf(date));
+    }
+
+    private static Supplier supplier(Long id) {
+        Supplier supplier = new Supplier();
+        supplier.setIdSupplier(id);
+        return supplier;
+    }
+}
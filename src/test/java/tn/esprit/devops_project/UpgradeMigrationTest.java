@@ -0,0 +1,93 @@
+package tn.esprit.devops_project;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import tn.esprit.devops_project.repositories.InvoiceDailyTotalRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Starts the application against a database that only holds the schema Hibernate generated before
+ * the migrations existed, the way existing installations are upgraded: Flyway baselines it at V1,
+ * applies the later versions, and Hibernate validates the result on startup.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + UpgradeMigrationTest.URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+class UpgradeMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:upgrade;DB_CLOSE_DELAY=-1";
+
+    static {
+        // runs before the application context, so Flyway finds a populated database without history
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-schema-h2.sql"));
+            statement.execute("insert into supplier (id_supplier, code, label) values (1, 'S1', 'first'), (2, 'S2', 'second'), (3, null, 'no code'), (4, null, 'no code either')");
+            statement.execute("insert into invoice (id_invoice, amount_discount, amount_invoice, archived, date_creation_invoice,"
+                    + " supplier_id_supplier) values (1, 0, 10, false, date '2024-03-01', 1), (2, 0, 5, true, date '2024-03-01', 1),"
+                    + " (3, 0, 7, null, date '2024-03-01', 1)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create the baseline database", e);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InvoiceDailyTotalRepository invoiceDailyTotalRepository;
+
+    @Test
+    void baselineDatabaseIsMigratedToTheCurrentSchema() {
+        List<String> versions = jdbcTemplate.queryForList("select \"version\" from \"flyway_schema_history\""
+                + " where \"success\" and \"version\" is not null order by \"installed_rank\"", String.class);
+        assertEquals("1", versions.get(0), "The existing schema should be baselined at V1");
+        assertTrue(versions.size() > 1, "The migrations after V1 should be applied");
+
+        assertEquals(1, invoiceDailyTotalRepository.count(), "The daily rollups should be backfilled from the existing invoices");
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from invoice where archived is null", Integer.class),
+                "Invoices without an archived flag should be backfilled as open");
+        assertEquals(1700L, jdbcTemplate.queryForObject("select total_cents from invoice_daily_total", Long.class),
+                "Only the open invoices should be counted");
+    }
+
+    @Test
+    void duplicateSupplierCodesStopTheMigrationUnchanged() throws SQLException {
+        String url = "jdbc:h2:mem:upgrade-duplicates;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-schema-h2.sql"));
+            statement.execute("insert into supplier (id_supplier, code, label) values (1, 'S1', 'first'), (2, 'S1', 'copy')");
+        }
+        Flyway flyway = Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("1").load();
+
+        FlywayException error = assertThrows(FlywayException.class, flyway::migrate);
+
+        assertTrue(error.getMessage().toUpperCase().contains("UK_SUPPLIER_CODE"), error.getMessage());
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet codes = statement.executeQuery("select code from supplier order by id_supplier")) {
+            assertTrue(codes.next() && "S1".equals(codes.getString(1)) && codes.next() && "S1".equals(codes.getString(1)),
+                    "The supplier codes should be left as they were");
+            assertFalse(connection.getMetaData().getTables(null, null, "INVOICE_DAILY_TOTAL", null).next(),
+                    "Nothing after the check should have been applied");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Schema generated by Hibernate (ddl-auto=update) before the Flyway migrations, as found on existing databases.
+-- UpgradeMigrationTest migrates it with baseline-on-migrate to check that V2 and later apply on top of it.
+
+create table invoice (id_invoice bigint generated by default as identity, amount_discount float not null, amount_invoice float not null, archived boolean, date_creation_invoice date, date_last_modification_invoice date, supplier_id_supplier bigint, primary key (id_invoice));
+create table invoice_detail (id_invoice_detail bigint generated by default as identity, price float not null, quantity integer not null, invoice_id_invoice bigint, product_id_product bigint, primary key (id_invoice_detail));
+create table operator (id_operateur bigint generated by default as identity, fname varchar(255), lname varchar(255), password varchar(255), primary key (id_operateur));
+create table operator_invoices (operator_id_operateur bigint not null, invoices_id_invoice bigint not null, primary key (operator_id_operateur, invoices_id_invoice));
+create table product (id_product bigint generated by default as identity, category varchar(255), price float not null, quantity integer not null, title varchar(255), stock_id_stock bigint, primary key (id_product));
+create table stock (id_stock bigint generated by default as identity, title varchar(255), primary key (id_stock));
+create table supplier (id_supplier bigint generated by default as identity, code varchar(255), label varchar(255), supplier_category varchar(255), primary key (id_supplier));
+alter table operator_invoices add constraint UK_nnmg2fltofk8yrs7r5v7nu39q unique (invoices_id_invoice);
+alter table invoice add constraint FK211pcrtru21a8lt9qn10ii89k foreign key (supplier_id_supplier) references supplier;
+alter table invoice_detail add constraint FKe3e6jd926bti5bxu2sg43ayex foreign key (invoice_id_invoice) references invoice;
+alter table invoice_detail add constraint FKk3uyq1a6lb4hgccxwxbmyj51u foreign key (product_id_product) references product;
+alter table operator_invoices add constraint FKcc3kg7v0mwl58mnmm0w04bwoc foreign key (invoices_id_invoice) references invoice;
+alter table operator_invoices add constraint FKho8r5qqb74bybuxxcfo3b9hl0 foreign key (operator_id_operateur) references operator;
+alter table product add constraint FKq21d0dqncd4rvyapq2dtelyj1 foreign key (stock_id_stock) references stock;